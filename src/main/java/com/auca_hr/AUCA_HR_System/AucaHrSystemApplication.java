@@ -2,8 +2,10 @@ package com.auca_hr.AUCA_HR_System;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AucaHrSystemApplication {
 
 	public static void main(String[] args) {
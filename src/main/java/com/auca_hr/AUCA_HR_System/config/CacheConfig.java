@@ -0,0 +1,70 @@
+package com.auca_hr.AUCA_HR_System.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USER_COUNTS = "userCounts";
+    public static final String TOKEN_STATES = "tokenStates";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String USERS_BY_ID = "usersById";
+
+    @Value("${app.cache.user-counts.ttl-seconds:60}")
+    private long userCountsTtlSeconds;
+
+    @Value("${app.cache.user-counts.max-size:256}")
+    private long userCountsMaxSize;
+
+    @Value("${app.cache.token-states.ttl-seconds:30}")
+    private long tokenStatesTtlSeconds;
+
+    @Value("${app.cache.token-states.max-size:10000}")
+    private long tokenStatesMaxSize;
+
+    @Value("${app.cache.users.ttl-seconds:300}")
+    private long usersTtlSeconds;
+
+    @Value("${app.cache.users.max-size:5000}")
+    private long usersMaxSize;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // Directory totals per (role, contractType) filter; evicted on every user write
+        cacheManager.registerCustomCache(USER_COUNTS, Caffeine.newBuilder()
+                .maximumSize(userCountsMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(userCountsTtlSeconds))
+                .build());
+
+        // Token version + active flag per user id; the TTL bounds how long a revocation takes on other nodes
+        cacheManager.registerCustomCache(TOKEN_STATES, Caffeine.newBuilder()
+                .maximumSize(tokenStatesMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(tokenStatesTtlSeconds))
+                .build());
+
+        // User snapshots by email and by id; stats are recorded for the hit/miss report
+        cacheManager.registerCustomCache(USERS_BY_EMAIL, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(usersTtlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USERS_BY_ID, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(usersTtlSeconds))
+                .recordStats()
+                .build());
+
+        return cacheManager;
+    }
+}
@@ -0,0 +1,115 @@
+package com.auca_hr.AUCA_HR_System.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+    public static final String REPORT_EXECUTOR = "reportExecutor";
+    public static final String REPORT_SINK_EXECUTOR = "reportSinkExecutor";
+    public static final String USER_IMPORT_EXECUTOR = "userImportExecutor";
+    public static final String USER_IMPORT_WORKER_EXECUTOR = "userImportWorkerExecutor";
+    public static final String WELCOME_MAIL_EXECUTOR = "welcomeMailExecutor";
+
+    // Bounded pool for outbox delivery and WebSocket pushes; a full queue is rejected, the outbox poll picks up the rest
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${app.notifications.executor.pool-size:2}") int poolSize,
+            @Value("${app.notifications.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    // Writers for streamed HTTP responses (report downloads); each task holds one response until it is written
+    @Bean(name = STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor(
+            @Value("${app.reports.stream.pool-size:4}") int poolSize,
+            @Value("${app.reports.stream.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-stream-");
+        return executor;
+    }
+
+    // Background report jobs; a full queue is rejected and the client is told to retry
+    @Bean(name = REPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor reportExecutor(
+            @Value("${app.reports.jobs.pool-size:2}") int poolSize,
+            @Value("${app.reports.jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        return executor;
+    }
+
+    // One thread per output format while a multi-format report is rendered from a single read
+    @Bean(name = REPORT_SINK_EXECUTOR)
+    public ThreadPoolTaskExecutor reportSinkExecutor(
+            @Value("${app.reports.fan-out.pool-size:6}") int poolSize,
+            @Value("${app.reports.fan-out.queue-capacity:30}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-sink-");
+        return executor;
+    }
+
+    // Bulk user imports; one job at a time per thread, a full queue is rejected and the client is told to retry
+    @Bean(name = USER_IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor userImportExecutor(
+            @Value("${app.users.import.pool-size:1}") int poolSize,
+            @Value("${app.users.import.queue-capacity:5}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("user-import-");
+        return executor;
+    }
+
+    // Validation and password hashing of an import batch; the caller runs the task itself when the queue is full
+    @Bean(name = USER_IMPORT_WORKER_EXECUTOR)
+    public ThreadPoolTaskExecutor userImportWorkerExecutor(
+            @Value("${app.users.import.workers:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 100);
+        executor.setThreadNamePrefix("user-import-worker-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // Welcome emails for imported users; each task waits for its send, so the pool size caps concurrent SMTP sessions
+    @Bean(name = WELCOME_MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor welcomeMailExecutor(
+            @Value("${app.users.import.mail.pool-size:2}") int poolSize,
+            @Value("${app.users.import.mail.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("welcome-mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
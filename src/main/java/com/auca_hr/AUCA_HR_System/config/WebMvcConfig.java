@@ -0,0 +1,28 @@
+package com.auca_hr.AUCA_HR_System.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor streamingExecutor;
+    private final long asyncTimeoutMs;
+
+    public WebMvcConfig(@Qualifier(ExecutorConfig.STREAMING_EXECUTOR) AsyncTaskExecutor streamingExecutor,
+                        @Value("${app.reports.stream.timeout-ms:600000}") long asyncTimeoutMs) {
+        this.streamingExecutor = streamingExecutor;
+        this.asyncTimeoutMs = asyncTimeoutMs;
+    }
+
+    // StreamingResponseBody downloads run here, off the Tomcat worker threads, and may outlast the default timeout
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+}
@@ -63,7 +63,8 @@ public class AuthController {
                                 .build());
             }
 
-            User user = (User) authentication.getPrincipal();
+            // The authenticated principal is a cached snapshot; token generation needs the entity
+            User user = userService.getUserByEmail(authentication.getName());
 
 //            if (user.getAccountStatus() != Status.ACTIVE) {
 //                return ResponseEntity.status(HttpStatus.FORBIDDEN)
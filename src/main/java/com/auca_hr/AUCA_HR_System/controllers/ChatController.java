@@ -3,7 +3,7 @@ package com.auca_hr.AUCA_HR_System.controllers;
 import com.auca_hr.AUCA_HR_System.dtos.ChatMessageDTO;
 import com.auca_hr.AUCA_HR_System.dtos.SendGroupMessageRequest;
 import com.auca_hr.AUCA_HR_System.dtos.SendMessageRequest;
-import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.dtos.UserSearchResultDTO;
 import com.auca_hr.AUCA_HR_System.services.ChatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -66,8 +66,8 @@ public class ChatController {
     }
 
     @GetMapping("/partners")
-    public ResponseEntity<List<User>> getConversationPartners(Principal principal) {
-        List<User> partners = chatService.getConversationPartners(principal.getName());
+    public ResponseEntity<List<UserSearchResultDTO>> getConversationPartners(Principal principal) {
+        List<UserSearchResultDTO> partners = chatService.getConversationPartners(principal.getName());
         return ResponseEntity.ok(partners);
     }
 
@@ -1,8 +1,9 @@
 package com.auca_hr.AUCA_HR_System.controllers;
 
-import com.auca_hr.AUCA_HR_System.dtos.ChatMessageDTO;
+import com.auca_hr.AUCA_HR_System.dtos.ChatMessagePage;
+import com.auca_hr.AUCA_HR_System.dtos.ConversationSummaryDTO;
 import com.auca_hr.AUCA_HR_System.dtos.SendMessageRequest;
-import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.dtos.UserSearchResultDTO;
 import com.auca_hr.AUCA_HR_System.enums.MessageType;
 import com.auca_hr.AUCA_HR_System.services.ChatService;
 import lombok.RequiredArgsConstructor;
@@ -24,28 +25,60 @@ public class ChatRestController {
     private final ChatService chatService;
 
     @GetMapping("/conversation/private/{otherUserId}")
-    public ResponseEntity<List<ChatMessageDTO>> getPrivateConversation(
+    public ResponseEntity<ChatMessagePage> getPrivateConversation(
             @PathVariable Long otherUserId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
             Principal principal) {
 
-        List<ChatMessageDTO> messages = chatService.getPrivateConversation(
-                principal.getName(),
-                otherUserId
-        );
-        return ResponseEntity.ok(messages);
+        try {
+            ChatMessagePage page = chatService.getPrivateConversationPage(
+                    principal.getName(),
+                    otherUserId,
+                    before,
+                    after,
+                    size
+            );
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            log.error("Error loading conversation with {}: {}", otherUserId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/conversation/group/{chatRoom}")
-    public ResponseEntity<List<ChatMessageDTO>> getGroupConversation(
-            @PathVariable String chatRoom) {
+    public ResponseEntity<ChatMessagePage> getGroupConversation(
+            @PathVariable String chatRoom,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+
+        try {
+            ChatMessagePage page = chatService.getGroupConversationPage(chatRoom, before, after, size);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            log.error("Error loading chat room {}: {}", chatRoom, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/conversations")
+    public ResponseEntity<List<ConversationSummaryDTO>> getConversations(
+            @RequestParam(defaultValue = "50") int limit,
+            Principal principal) {
 
-        List<ChatMessageDTO> messages = chatService.getGroupConversation(chatRoom);
-        return ResponseEntity.ok(messages);
+        try {
+            return ResponseEntity.ok(chatService.getConversations(principal.getName(), limit));
+        } catch (RuntimeException e) {
+            log.error("Error loading conversations: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/partners")
-    public ResponseEntity<List<User>> getConversationPartners(Principal principal) {
-        List<User> partners = chatService.getConversationPartners(principal.getName());
+    public ResponseEntity<List<UserSearchResultDTO>> getConversationPartners(Principal principal) {
+        List<UserSearchResultDTO> partners = chatService.getConversationPartners(principal.getName());
         return ResponseEntity.ok(partners);
     }
 
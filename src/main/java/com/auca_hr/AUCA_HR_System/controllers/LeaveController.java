@@ -2,16 +2,26 @@
 
 package com.auca_hr.AUCA_HR_System.controllers;
 
+import com.auca_hr.AUCA_HR_System.dtos.BulkLeaveDecisionRequest;
+import com.auca_hr.AUCA_HR_System.dtos.BulkLeaveDecisionResult;
+import com.auca_hr.AUCA_HR_System.dtos.LeaveBalanceDTO;
 import com.auca_hr.AUCA_HR_System.dtos.LeaveRequestDTO;
+import com.auca_hr.AUCA_HR_System.dtos.LeaveSearchCriteria;
 import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+import com.auca_hr.AUCA_HR_System.enums.LeaveType;
+import com.auca_hr.AUCA_HR_System.services.LeaveBalanceService;
 import com.auca_hr.AUCA_HR_System.services.LeaveService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,6 +32,7 @@ import java.util.List;
 public class LeaveController {
 
     private final LeaveService leaveService;
+    private final LeaveBalanceService leaveBalanceService;
 
     @PostMapping
     public ResponseEntity<LeaveRequestDTO> submitLeaveRequest(
@@ -77,10 +88,27 @@ public class LeaveController {
         }
     }
 
+    /**
+     * Full-text leave search; every filter is optional and results come back one page at a time
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<LeaveRequestDTO>> searchLeaveRequests(@RequestParam String searchTerm) {
+    public ResponseEntity<List<LeaveRequestDTO>> searchLeaveRequests(
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) LeaveStatus status,
+            @RequestParam(required = false) LeaveType leaveType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         log.info("Searching leave requests with term: {}", searchTerm);
-        List<LeaveRequestDTO> requests = leaveService.searchLeaveRequests(searchTerm);
+        LeaveSearchCriteria criteria = LeaveSearchCriteria.builder()
+                .searchTerm(searchTerm)
+                .status(status)
+                .leaveType(leaveType)
+                .from(from)
+                .to(to)
+                .build();
+        List<LeaveRequestDTO> requests = leaveService.searchLeaveRequests(criteria, page, size);
         return ResponseEntity.ok(requests);
     }
 
@@ -114,6 +142,34 @@ public class LeaveController {
         }
     }
 
+    @PutMapping("/bulk/approve")
+    public ResponseEntity<List<BulkLeaveDecisionResult>> bulkApproveLeaveRequests(
+            @Valid @RequestBody BulkLeaveDecisionRequest request,
+            Authentication authentication) {
+        return bulkDecide(request, LeaveStatus.APPROVED, authentication);
+    }
+
+    @PutMapping("/bulk/reject")
+    public ResponseEntity<List<BulkLeaveDecisionResult>> bulkRejectLeaveRequests(
+            @Valid @RequestBody BulkLeaveDecisionRequest request,
+            Authentication authentication) {
+        return bulkDecide(request, LeaveStatus.REJECTED, authentication);
+    }
+
+    private ResponseEntity<List<BulkLeaveDecisionResult>> bulkDecide(BulkLeaveDecisionRequest request,
+                                                                     LeaveStatus decision,
+                                                                     Authentication authentication) {
+        log.info("Bulk {} of {} leave requests by HR: {}", decision, request.getRequestIds().size(), authentication.getName());
+        try {
+            List<BulkLeaveDecisionResult> results = leaveService.decideLeaveRequests(
+                    request.getRequestIds(), decision, authentication.getName(), request.getComments());
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            log.error("Error in bulk leave decision: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{requestId}/cancel")
     public ResponseEntity<LeaveRequestDTO> cancelLeaveRequest(
             @PathVariable Long requestId,
@@ -128,6 +184,26 @@ public class LeaveController {
         }
     }
 
+    @GetMapping("/balances")
+    public ResponseEntity<List<LeaveBalanceDTO>> getLeaveBalances(@RequestParam int year,
+                                                                  Authentication authentication) {
+        log.info("Fetching leave balances for user: {} for year: {}", authentication.getName(), year);
+        try {
+            List<LeaveBalanceDTO> balances = leaveService.getLeaveBalances(authentication.getName(), year);
+            return ResponseEntity.ok(balances);
+        } catch (RuntimeException e) {
+            log.error("Error fetching leave balances: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/balances/rebuild")
+    public ResponseEntity<Integer> rebuildLeaveBalances(@RequestParam int year) {
+        log.info("Rebuilding leave balance ledger for year: {}", year);
+        int corrected = leaveBalanceService.rebuildYear(year);
+        return ResponseEntity.ok(corrected);
+    }
+
 //    @GetMapping("/balance")
 //    public ResponseEntity<Integer> getLeaveBalance(@RequestParam Long userId,
 //                                                   @RequestParam int year) {
@@ -90,6 +90,7 @@
 package com.auca_hr.AUCA_HR_System.controllers;
 
 import com.auca_hr.AUCA_HR_System.dtos.NotificationDTO;
+import com.auca_hr.AUCA_HR_System.services.NotificationDispatcher;
 import com.auca_hr.AUCA_HR_System.services.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -98,6 +99,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -107,6 +109,7 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
 
     @GetMapping
     public ResponseEntity<List<NotificationDTO>> getAllNotifications(Authentication authentication) {
@@ -145,6 +148,12 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        log.info("Fetching notification outbox statistics");
+        return ResponseEntity.ok(notificationDispatcher.getStats());
+    }
+
     @DeleteMapping("/read")
     public ResponseEntity<Void> deleteReadNotifications(Authentication authentication) {
         log.info("Deleting read notifications for user: {}", authentication.getName());
@@ -1,64 +1,121 @@
-//package com.auca_hr.AUCA_HR_System.controllers;
-//
-//import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
-//import com.auca_hr.AUCA_HR_System.dtos.ReportResponse;
-//import com.auca_hr.AUCA_HR_System.services.ReportService;
-//import org.springframework.beans.factory.annotation.Autowired;
-//import org.springframework.core.io.FileSystemResource;
-//import org.springframework.core.io.Resource;
-//import org.springframework.http.HttpHeaders;
-//import org.springframework.http.MediaType;
-//import org.springframework.http.ResponseEntity;
-//import org.springframework.web.bind.annotation.*;
-//import jakarta.validation.Valid;
-//import java.io.File;
-//import java.nio.file.Files;
-//
-//@RestController
-//@RequestMapping("/api/reports")
-//@CrossOrigin(origins = "*")
-//public class ReportController {
-//
-//    @Autowired
-//    private ReportService reportService;
-//
-//    @PostMapping("/generate")
-//    public ResponseEntity<ReportResponse> generateReport(@Valid @RequestBody ReportRequest request) {
-//        try {
-//            ReportResponse response = reportService.generateReport(request);
-//            return ResponseEntity.ok(response);
-//        } catch (Exception e) {
-//            return ResponseEntity.badRequest().build();
-//        }
-//    }
-//
-//    @GetMapping("/download/{fileName}")
-//    public ResponseEntity<Resource> downloadReport(@PathVariable String fileName) {
-//        try {
-//            File file = reportService.getReportFile(fileName);
-//            Resource resource = new FileSystemResource(file);
-//
-//            String contentType = Files.probeContentType(file.toPath());
-//            if (contentType == null) {
-//                contentType = "application/octet-stream";
-//            }
-//
-//            return ResponseEntity.ok()
-//                    .contentType(MediaType.parseMediaType(contentType))
-//                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-//                    .body(resource);
-//        } catch (Exception e) {
-//            return ResponseEntity.notFound().build();
-//        }
-//    }
-//
-//    @GetMapping("/types")
-//    public ResponseEntity<String[]> getReportTypes() {
-//        return ResponseEntity.ok(new String[]{"sales", "users", "inventory"});
-//    }
-//
-//    @GetMapping("/formats")
-//    public ResponseEntity<String[]> getSupportedFormats() {
-//        return ResponseEntity.ok(new String[]{"PDF", "EXCEL", "CSV"});
-//    }
-//}
\ No newline at end of file
+package com.auca_hr.AUCA_HR_System.controllers;
+
+import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
+import com.auca_hr.AUCA_HR_System.dtos.ReportResponse;
+import com.auca_hr.AUCA_HR_System.entities.ReportJob;
+import com.auca_hr.AUCA_HR_System.services.ReportGenerator;
+import com.auca_hr.AUCA_HR_System.services.ReportDownloadService;
+import com.auca_hr.AUCA_HR_System.services.ReportJobService;
+import com.auca_hr.AUCA_HR_System.services.ReportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final ReportJobService reportJobService;
+    private final ReportDownloadService reportDownloadService;
+
+    /**
+     * Stream the report to the client as it is generated; nothing is buffered in full on the server
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<StreamingResponseBody> generateReport(@Valid @RequestBody ReportRequest request) {
+        try {
+            ReportGenerator generator = reportService.validate(request);
+            String fileName = reportService.buildFileName(request, generator);
+
+            StreamingResponseBody body = out -> reportService.writeReport(request, generator, out);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(generator.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(fileName, StandardCharsets.UTF_8)
+                            .build()
+                            .toString())
+                    .body(body);
+        } catch (RuntimeException e) {
+            log.error("Error generating report: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Queue the report; poll the returned job until it is DONE, then download it
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportResponse> submitReportJob(@Valid @RequestBody ReportRequest request, Principal principal) {
+        ReportResponse response = reportJobService.submit(request, principal.getName());
+        HttpStatus status = "DONE".equals(response.getStatus()) ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Queue the report in format plus every entry of formats; the data is read once for all of them
+     */
+    @PostMapping("/jobs/multi-format")
+    public ResponseEntity<List<ReportResponse>> submitMultiFormatReportJob(@Valid @RequestBody ReportRequest request,
+                                                                           Principal principal) {
+        List<ReportResponse> responses = reportJobService.submitAll(request, principal.getName());
+        boolean done = responses.stream().allMatch(response -> "DONE".equals(response.getStatus()));
+        return ResponseEntity.status(done ? HttpStatus.OK : HttpStatus.ACCEPTED).body(responses);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ReportResponse>> getReportJobs(Principal principal) {
+        return ResponseEntity.ok(reportJobService.getJobs(principal.getName()));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportResponse> getReportJob(@PathVariable String jobId, Principal principal) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId, principal.getName()));
+    }
+
+    /**
+     * Finished report file; supports Range, conditional requests and a gzip sibling
+     */
+    @RequestMapping(value = "/jobs/{jobId}/download", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void downloadReport(@PathVariable String jobId, Principal principal,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ReportJob job = reportJobService.getDownload(jobId, principal.getName());
+        reportDownloadService.send(reportJobService.resolve(job.getStoredFile()), job.getFileName(),
+                job.getContentType(), request, response);
+    }
+
+    @GetMapping("/jobs/stats")
+    public ResponseEntity<Map<String, Object>> getReportJobStats() {
+        return ResponseEntity.ok(reportJobService.getStats());
+    }
+
+    @GetMapping("/types")
+    public ResponseEntity<Set<String>> getReportTypes() {
+        return ResponseEntity.ok(reportService.getReportTypes());
+    }
+
+    @GetMapping("/formats")
+    public ResponseEntity<Set<String>> getSupportedFormats() {
+        return ResponseEntity.ok(reportService.getSupportedFormats());
+    }
+}
@@ -1,13 +1,23 @@
 package com.auca_hr.AUCA_HR_System.controllers;
 
 import com.auca_hr.AUCA_HR_System.dtos.ApiResponse;
+import com.auca_hr.AUCA_HR_System.dtos.UserFullProfileDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserImportStatus;
+import com.auca_hr.AUCA_HR_System.dtos.UserOwnProfileDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserProfileDTO;
 import com.auca_hr.AUCA_HR_System.dtos.UserRegistrationDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserSearchResultDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserSummaryDTO;
 import com.auca_hr.AUCA_HR_System.dtos.UserUpdateDTO;
 import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.ContractType;
 import com.auca_hr.AUCA_HR_System.enums.UserRole;
 import com.auca_hr.AUCA_HR_System.exceptions.DuplicateResourceException;
 import com.auca_hr.AUCA_HR_System.exceptions.InvalidFormatException;
 import com.auca_hr.AUCA_HR_System.exceptions.ResourceNotFoundException;
+import com.auca_hr.AUCA_HR_System.exceptions.TooManyRequestsException;
+import com.auca_hr.AUCA_HR_System.exceptions.ValidationException;
+import com.auca_hr.AUCA_HR_System.services.UserBulkImportService;
 import com.auca_hr.AUCA_HR_System.services.UserService;
 import com.auca_hr.AUCA_HR_System.utils.FileStorageService;
 import com.auca_hr.AUCA_HR_System.utils.JwtUtil;
@@ -20,7 +30,10 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 
 @RestController
@@ -30,24 +43,28 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserBulkImportService userBulkImportService;
     private final FileStorageService fileStorageService;
     private final JwtUtil jwtUtil;
 
     @Autowired
-    public UserController(UserService userService, FileStorageService fileStorageService, JwtUtil jwtUtil) {
+    public UserController(UserService userService, UserBulkImportService userBulkImportService,
+                          FileStorageService fileStorageService, JwtUtil jwtUtil) {
         this.userService = userService;
+        this.userBulkImportService = userBulkImportService;
         this.fileStorageService = fileStorageService;
         this.jwtUtil = jwtUtil;
     }
     @GetMapping("/search")
-    public ResponseEntity<List<UserRegistrationDTO>> searchUsers(
+    public ResponseEntity<List<UserSearchResultDTO>> searchUsers(
             @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
             @RequestHeader("Authorization") String authHeader) {
 
         String token = authHeader.replace("Bearer ", "");
         Long currentUserId = jwtUtil.extractUserId(token);
 
-        List<UserRegistrationDTO> users = userService.searchUsers(query, currentUserId);
+        List<UserSearchResultDTO> users = userService.searchUsers(query, currentUserId, limit);
         return ResponseEntity.ok(users);
     }
     /**
@@ -91,6 +108,54 @@ public class UserController {
         }
     }
 
+    /**
+     * Queue the creation of many users; poll the returned job for progress and per-row errors
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<UserImportStatus>> importUsers(@RequestBody List<UserRegistrationDTO> registrations,
+                                                                     Principal principal) {
+        return submitImport(() -> userBulkImportService.submitJson(registrations, principal.getName()));
+    }
+
+    /**
+     * Same as /bulk from a CSV file whose header names the registration fields (fullNames, email, ...)
+     */
+    @PostMapping(value = "/bulk/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<UserImportStatus>> importUsersCsv(@RequestParam("file") MultipartFile file,
+                                                                        Principal principal) {
+        return submitImport(() -> userBulkImportService.submitCsv(file, principal.getName()));
+    }
+
+    @GetMapping("/bulk/{jobId}")
+    public ResponseEntity<ApiResponse<UserImportStatus>> getImportStatus(@PathVariable String jobId, Principal principal) {
+        try {
+            UserImportStatus status = userBulkImportService.getStatus(jobId, principal.getName());
+            ApiResponse<UserImportStatus> response = new ApiResponse<>(
+                    true, "Import status retrieved successfully", status, HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            ApiResponse<UserImportStatus> response = new ApiResponse<>(
+                    false, e.getMessage(), null, HttpStatus.NOT_FOUND.value());
+            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<UserImportStatus>> submitImport(Supplier<UserImportStatus> submit) {
+        try {
+            ApiResponse<UserImportStatus> response = new ApiResponse<>(
+                    true, "Import accepted", submit.get(), HttpStatus.ACCEPTED.value());
+            return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+        } catch (ValidationException e) {
+            ApiResponse<UserImportStatus> response = new ApiResponse<>(
+                    false, e.getMessage(), null, HttpStatus.BAD_REQUEST.value());
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        } catch (TooManyRequestsException e) {
+            ApiResponse<UserImportStatus> response = new ApiResponse<>(
+                    false, e.getMessage(), null, HttpStatus.TOO_MANY_REQUESTS.value());
+            return new ResponseEntity<>(response, HttpStatus.TOO_MANY_REQUESTS);
+        }
+    }
+
 
 //    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 //    public ResponseEntity<ApiResponse<User>> createUser(
@@ -201,13 +266,14 @@ public class UserController {
     }
 
     /**
-     * Get user by ID
+     * Get user by ID. Returns the directory profile: identity numbers, payroll and bank details are no
+     * longer included here, since any caller can reach this endpoint; a user's own copy comes from /profile.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<UserFullProfileDTO>> getUserById(@PathVariable Long id) {
         try {
-            User user = userService.getUserById(id);
-            ApiResponse<User> response = new ApiResponse<>(
+            UserFullProfileDTO user = userService.getUserProfile(id);
+            ApiResponse<UserFullProfileDTO> response = new ApiResponse<>(
                     true,
                     "User retrieved successfully",
                     user,
@@ -215,7 +281,7 @@ public class UserController {
             );
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (ResourceNotFoundException e) {
-            ApiResponse<User> response = new ApiResponse<>(
+            ApiResponse<UserFullProfileDTO> response = new ApiResponse<>(
                     false,
                     "User not found: " + e.getMessage(),
                     null,
@@ -223,7 +289,7 @@ public class UserController {
             );
             return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
         } catch (Exception e) {
-            ApiResponse<User> response = new ApiResponse<>(
+            ApiResponse<UserFullProfileDTO> response = new ApiResponse<>(
                     false,
                     "An error occurred while retrieving user: " + e.getMessage(),
                     null,
@@ -233,26 +299,37 @@ public class UserController {
         }
     }
     /**
-     * Get current user profile
+     * Get current user profile, including the identity and payroll fields; never credentials
      */
     @GetMapping("/profile")
-    public ResponseEntity<User> getCurrentUserProfile() {
+    public ResponseEntity<UserOwnProfileDTO> getCurrentUserProfile() {
         try {
-            User currentUser = userService.getCurrentUser();
+            UserOwnProfileDTO currentUser = userService.getCurrentUserProfile();
             return ResponseEntity.ok(currentUser);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Hit/miss statistics for the user lookup cache
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getUserCacheStats() {
+        ApiResponse<Map<String, Object>> response = new ApiResponse<>(
+                true, "User cache statistics retrieved successfully", userService.getUserCacheStats(), HttpStatus.OK.value()
+        );
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get user by email
      */
     @GetMapping("/email/{email}")
-    public ResponseEntity<ApiResponse<User>> getUserByEmail(@PathVariable String email) {
+    public ResponseEntity<ApiResponse<UserProfileDTO>> getUserByEmail(@PathVariable String email) {
         try {
-            User user = userService.getUserByEmail(email);
-            ApiResponse<User> response = new ApiResponse<>(
+            UserProfileDTO user = userService.getUserProfileByEmail(email);
+            ApiResponse<UserProfileDTO> response = new ApiResponse<>(
                     true,
                     "User retrieved successfully",
                     user,
@@ -260,7 +337,7 @@ public class UserController {
             );
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (ResourceNotFoundException e) {
-            ApiResponse<User> response = new ApiResponse<>(
+            ApiResponse<UserProfileDTO> response = new ApiResponse<>(
                     false,
                     "User not found: " + e.getMessage(),
                     null,
@@ -268,7 +345,7 @@ public class UserController {
             );
             return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
         } catch (Exception e) {
-            ApiResponse<User> response = new ApiResponse<>(
+            ApiResponse<UserProfileDTO> response = new ApiResponse<>(
                     false,
                     "An error occurred while retrieving user: " + e.getMessage(),
                     null,
@@ -279,33 +356,37 @@ public class UserController {
     }
 
     /**
-     * Get all users with pagination
+     * Get all users with pagination.
+     * Pass afterId (the last id of the previous page) to switch to keyset pagination.
      */
-    // Add this endpoint to your UserController
-
     @GetMapping
-    public ResponseEntity<ApiResponse<List<User>>> getAllUsers(
+    public ResponseEntity<ApiResponse<List<UserSummaryDTO>>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) ContractType contractType) {
         try {
-            List<User> users = userService.getAllUsers();
-
-            // Simple pagination logic
-            int totalUsers = users.size();
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalUsers);
-
-            List<User> paginatedUsers = users.subList(startIndex, endIndex);
+            List<UserSummaryDTO> users;
+            if (afterId != null) {
+                users = userService.getUsersAfter(afterId, role, contractType, size);
+            } else {
+                users = userService.getUsersPage(role, contractType, page, size, sortBy, direction).getContent();
+            }
+            long totalUsers = userService.countUsers(role, contractType);
 
-            ApiResponse<List<User>> response = new ApiResponse<>(
+            String pageInfo = afterId != null ? "After ID: " + afterId : "Page: " + page;
+            ApiResponse<List<UserSummaryDTO>> response = new ApiResponse<>(
                     true,
-                    "Users retrieved successfully. Total: " + totalUsers + ", Page: " + page + ", Size: " + paginatedUsers.size(),
-                    paginatedUsers,
+                    "Users retrieved successfully. Total: " + totalUsers + ", " + pageInfo + ", Size: " + users.size(),
+                    users,
                     HttpStatus.OK.value()
             );
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (Exception e) {
-            ApiResponse<List<User>> response = new ApiResponse<>(
+            ApiResponse<List<UserSummaryDTO>> response = new ApiResponse<>(
                     false,
                     "An error occurred while retrieving users: " + e.getMessage(),
                     null,
@@ -315,14 +396,47 @@ public class UserController {
         }
     }
 
+    /**
+     * Profile browser: a directory page of users with education and work experience,
+     * at a fixed number of queries per page
+     */
+    @GetMapping("/profiles")
+    public ResponseEntity<ApiResponse<List<UserFullProfileDTO>>> getUserProfiles(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) ContractType contractType) {
+        try {
+            List<UserFullProfileDTO> profiles = userService.getProfilesPage(afterId, role, contractType, page, size, sortBy, direction);
+            ApiResponse<List<UserFullProfileDTO>> response = new ApiResponse<>(
+                    true,
+                    "User profiles retrieved successfully. Size: " + profiles.size(),
+                    profiles,
+                    HttpStatus.OK.value()
+            );
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            ApiResponse<List<UserFullProfileDTO>> response = new ApiResponse<>(
+                    false,
+                    "An error occurred while retrieving user profiles: " + e.getMessage(),
+                    null,
+                    HttpStatus.INTERNAL_SERVER_ERROR.value()
+            );
+            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Get users by role
      */
     @GetMapping("/role/{role}")
-    public ResponseEntity<ApiResponse<List<User>>> getUsersByRole(@PathVariable UserRole role) {
+    public ResponseEntity<ApiResponse<List<UserSummaryDTO>>> getUsersByRole(@PathVariable UserRole role) {
         try {
-            List<User> users = userService.getUsersByRole(role);
-            ApiResponse<List<User>> response = new ApiResponse<>(
+            List<UserSummaryDTO> users = userService.getUsersByRole(role);
+            ApiResponse<List<UserSummaryDTO>> response = new ApiResponse<>(
                     true,
                     "Users retrieved successfully for role: " + role,
                     users,
@@ -330,7 +444,7 @@ public class UserController {
             );
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (Exception e) {
-            ApiResponse<List<User>> response = new ApiResponse<>(
+            ApiResponse<List<UserSummaryDTO>> response = new ApiResponse<>(
                     false,
                     "An error occurred while retrieving users by role: " + e.getMessage(),
                     null,
@@ -0,0 +1,19 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLeaveDecisionRequest {
+
+    @NotEmpty(message = "At least one leave request ID is required")
+    private List<Long> requestIds;
+
+    private String comments;
+}
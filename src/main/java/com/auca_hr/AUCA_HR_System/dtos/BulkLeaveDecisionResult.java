@@ -0,0 +1,21 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLeaveDecisionResult {
+
+    private Long requestId;
+
+    private boolean success;
+
+    // Status of the request after the call, null if it does not exist
+    private LeaveStatus status;
+
+    private String message;
+}
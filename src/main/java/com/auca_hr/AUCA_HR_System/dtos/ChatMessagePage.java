@@ -0,0 +1,22 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a conversation, oldest message first.
+ * Pass olderCursor as "before" to load the previous page and newerCursor as "after" to load newer messages.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessagePage {
+    private List<ChatMessageDTO> messages;
+    private String olderCursor;
+    private String newerCursor;
+    private boolean hasOlder;
+    private boolean hasNewer;
+}
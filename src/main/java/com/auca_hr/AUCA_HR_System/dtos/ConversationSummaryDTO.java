@@ -0,0 +1,26 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One inbox entry, seen from the requesting user's side
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationSummaryDTO {
+    private Long partnerId;
+    private String partnerName;
+    private String partnerAvatar;
+    private String lastMessageId;
+    private String lastMessage;
+    private Long lastSenderId;
+    private LocalDateTime lastMessageAt;
+    private int unreadCount;
+}
@@ -0,0 +1,25 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+import com.auca_hr.AUCA_HR_System.enums.LeaveType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Leave search filters; null fields are not applied. from/to select requests whose leave overlaps the range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveSearchCriteria {
+    private String searchTerm;
+    private LeaveStatus status;
+    private LeaveType leaveType;
+    private LocalDate from;
+    private LocalDate to;
+}
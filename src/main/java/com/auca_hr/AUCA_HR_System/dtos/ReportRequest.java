@@ -8,6 +8,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -27,4 +29,6 @@ public class ReportRequest {
     private LocalDateTime endDate;
     private Map<String, Object> parameters = new HashMap<>();
     private String templateName;
+    // Further formats rendered from the same read of the data, one job each
+    private List<String> formats = new ArrayList<>();
 }
\ No newline at end of file
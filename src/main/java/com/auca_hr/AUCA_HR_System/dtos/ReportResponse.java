@@ -18,7 +18,11 @@ public class ReportResponse {
     private LocalDateTime generatedAt;
     private long fileSizeBytes;
     private String contentType;
+    private String errorMessage;
 
     public ReportResponse(String reportId, String fileName, String downloadUrl) {
+        this.reportId = reportId;
+        this.fileName = fileName;
+        this.downloadUrl = downloadUrl;
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pushed on /queue/notifications/unread whenever a user's unread count changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountDTO {
+
+    private long unreadCount;
+}
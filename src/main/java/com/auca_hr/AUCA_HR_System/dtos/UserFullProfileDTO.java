@@ -0,0 +1,42 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import com.auca_hr.AUCA_HR_System.enums.AcademicRank;
+import com.auca_hr.AUCA_HR_System.enums.ContractType;
+import com.auca_hr.AUCA_HR_System.enums.Gender;
+import com.auca_hr.AUCA_HR_System.enums.MaritalStatus;
+import com.auca_hr.AUCA_HR_System.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link UserProfileDTO} plus education and work experience; like it, leaves out credentials, identity numbers and payroll
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFullProfileDTO {
+    private Long id;
+    private String fullNames;
+    private String email;
+    private String phoneNumber;
+    private LocalDate dateOfBirth;
+    private Gender gender;
+    private MaritalStatus maritalStatus;
+    private String nationality;
+    private AcademicRank academicRank;
+    private ContractType contractType;
+    private String workingPosition;
+    private String photo;
+    private UserRole role;
+    private Boolean active;
+    private LocalDateTime createdAt;
+    private List<EducationDTO> education;
+    private List<WorkExperienceDTO> workExperience;
+}
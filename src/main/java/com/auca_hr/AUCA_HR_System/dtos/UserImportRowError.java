@@ -0,0 +1,17 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row of a bulk import that was not created; row is 1-based and counts data rows only
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportRowError {
+    private int row;
+    private String email;
+    private String message;
+}
@@ -0,0 +1,25 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportStatus {
+    private String jobId;
+    private String status;
+    private int totalRows;
+    private int processedRows;
+    private int createdCount;
+    private int failedCount;
+    private List<UserImportRowError> errors;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,34 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import com.auca_hr.AUCA_HR_System.enums.Religion;
+import com.auca_hr.AUCA_HR_System.enums.TprLevel;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The caller's own record: {@link UserFullProfileDTO} plus the identity and payroll fields only its owner sees.
+ * Serialized flat, as the User entity was; credentials and account-state flags stay out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOwnProfileDTO {
+    @JsonUnwrapped
+    private UserFullProfileDTO profile;
+    private String nationalId;
+    private Religion religion;
+    private BigDecimal salary;
+    private BigDecimal totalAllowances;
+    private String bankAccount;
+    private String accountNumber;
+    private TprLevel tprLevel;
+    private String rssbNumber;
+    private LocalDateTime updatedAt;
+}
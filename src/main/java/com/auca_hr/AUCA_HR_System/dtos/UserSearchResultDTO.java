@@ -0,0 +1,23 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import com.auca_hr.AUCA_HR_System.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One directory search hit: just enough to show and pick a colleague
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchResultDTO {
+    private Long id;
+    private String fullNames;
+    private String email;
+    private String workingPosition;
+    private String photo;
+    private UserRole role;
+}
@@ -0,0 +1,26 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import com.auca_hr.AUCA_HR_System.enums.AcademicRank;
+import com.auca_hr.AUCA_HR_System.enums.ContractType;
+import com.auca_hr.AUCA_HR_System.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a user list, selected column by column: no photo, credentials, payroll or collections
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+    private Long id;
+    private String fullNames;
+    private String email;
+    private String phoneNumber;
+    private String workingPosition;
+    private AcademicRank academicRank;
+    private ContractType contractType;
+    private UserRole role;
+    private Boolean active;
+}
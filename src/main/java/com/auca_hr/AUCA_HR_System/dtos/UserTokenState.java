@@ -0,0 +1,21 @@
+package com.auca_hr.AUCA_HR_System.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTokenState {
+    private Integer tokenVersion;
+    private Boolean active;
+
+    public int currentVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+
+    public boolean isActive() {
+        return active != null ? active : true;
+    }
+}
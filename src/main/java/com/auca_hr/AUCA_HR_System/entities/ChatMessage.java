@@ -1,6 +1,7 @@
 package com.auca_hr.AUCA_HR_System.entities;
 
 import com.auca_hr.AUCA_HR_System.enums.MessageType;
+import com.auca_hr.AUCA_HR_System.utils.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,14 +11,20 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        // Cursor pagination on (created_at, id): one index per conversation shape
+        @Index(name = "idx_chat_messages_pair_created", columnList = "sender_id, recipient_id, created_at, id"),
+        @Index(name = "idx_chat_messages_room_created", columnList = "chat_room, created_at, id"),
+        // Keyset walk of the whole table for ChatMessageIdMigration
+        @Index(name = "idx_chat_messages_created", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ChatMessage {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,47 @@
+package com.auca_hr.AUCA_HR_System.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for the chat inbox: one row per private conversation with its latest message
+ * and the unread count on each side. Maintained by ConversationSummaryService as messages
+ * are sent and read; rebuilt from chat_messages when empty.
+ */
+@Entity
+@Table(name = "conversation_summary", indexes = {
+        @Index(name = "idx_conversation_summary_low_recent", columnList = "low_user_id, last_message_at"),
+        @Index(name = "idx_conversation_summary_high_recent", columnList = "high_user_id, last_message_at"),
+        @Index(name = "idx_conversation_summary_last_message", columnList = "last_message_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummary {
+
+    @EmbeddedId
+    private ConversationSummaryId id;
+
+    @Column(name = "last_message_id", length = 36)
+    private String lastMessageId;
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    // Messages the low/high user has received in this conversation and not read yet
+    @Column(name = "low_user_unread", nullable = false)
+    private int lowUserUnread;
+
+    @Column(name = "high_user_unread", nullable = false)
+    private int highUserUnread;
+}
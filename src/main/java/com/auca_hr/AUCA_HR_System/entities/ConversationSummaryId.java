@@ -0,0 +1,31 @@
+package com.auca_hr.AUCA_HR_System.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Unordered user pair, stored with the smaller id first so both directions map to one row
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummaryId implements Serializable {
+
+    @Column(name = "low_user_id", nullable = false)
+    private Long lowUserId;
+
+    @Column(name = "high_user_id", nullable = false)
+    private Long highUserId;
+
+    public static ConversationSummaryId of(Long userId, Long otherUserId) {
+        return userId <= otherUserId
+                ? new ConversationSummaryId(userId, otherUserId)
+                : new ConversationSummaryId(otherUserId, userId);
+    }
+}
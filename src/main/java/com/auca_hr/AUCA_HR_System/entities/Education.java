@@ -18,12 +18,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Data
 @Entity
-@Table(name = "education")
+@Table(name = "education", indexes = {
+        @Index(name = "idx_education_user_id", columnList = "user_id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Education {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "education_seq")
+    @SequenceGenerator(name = "education_seq", sequenceName = "education_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Institution name is required")
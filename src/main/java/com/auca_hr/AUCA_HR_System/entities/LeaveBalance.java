@@ -0,0 +1,35 @@
+package com.auca_hr.AUCA_HR_System.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Approved leave days per user, calendar year and leave type.
+ * Maintained incrementally by LeaveService and reconciled against leave_requests by LeaveBalanceService.
+ */
+@Entity
+@Table(name = "leave_balances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveBalance {
+
+    @EmbeddedId
+    private LeaveBalanceId id;
+
+    @Column(name = "used_days", nullable = false)
+    private int usedDays;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
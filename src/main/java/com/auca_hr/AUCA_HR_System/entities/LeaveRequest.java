@@ -13,7 +13,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "leave_requests")
+@Table(name = "leave_requests", indexes = {
+        @Index(name = "idx_leave_requests_lecturer_created", columnList = "lecturer_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,82 @@
+package com.auca_hr.AUCA_HR_System.entities;
+
+import com.auca_hr.AUCA_HR_System.enums.ReportJobStatus;
+import com.auca_hr.AUCA_HR_System.utils.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A report generated in the background. Finished files are stored under their request hash,
+ * so jobs for identical requests share one file while it is fresh.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_jobs_hash_status", columnList = "request_hash, status, completed_at"),
+        @Index(name = "idx_report_jobs_requested_by", columnList = "requested_by, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJob {
+
+    @Id
+    @TimeOrderedId
+    private String id;
+
+    @Column(name = "requested_by", nullable = false)
+    private String requestedBy;
+
+    @Column(name = "report_type", nullable = false, length = 64)
+    private String reportType;
+
+    @Column(nullable = false, length = 16)
+    private String format;
+
+    // SHA-256 of the canonical request JSON
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "request_json", columnDefinition = "TEXT")
+    private String requestJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReportJobStatus status = ReportJobStatus.QUEUED;
+
+    // Name offered to the client; the stored file is named after the request hash
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "stored_file")
+    private String storedFile;
+
+    @Column(name = "file_size_bytes")
+    private long fileSizeBytes;
+
+    @Column(name = "content_type", length = 128)
+    private String contentType;
+
+    @Column(name = "cache_hit")
+    private boolean cacheHit;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -8,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.annotation.Transient;
@@ -32,12 +33,23 @@ import java.util.List;
         @UniqueConstraint(columnNames = "email"),
         @UniqueConstraint(columnNames = "nationalId"),
         @UniqueConstraint(columnNames = "phoneNumber")
+}, indexes = {
+        @Index(name = "idx_users_role_id", columnList = "role, id"),
+        @Index(name = "idx_users_contract_type_id", columnList = "contractType, id")
 })
+// Both collections are bags, which Hibernate cannot join-fetch together; load one per query instead
+@NamedEntityGraph(name = User.WITH_EDUCATION, attributeNodes = @NamedAttributeNode("education"))
+@NamedEntityGraph(name = User.WITH_WORK_EXPERIENCE, attributeNodes = @NamedAttributeNode("workExperience"))
 @EntityListeners(AuditingEntityListener.class)
 public class User implements UserDetails {
 
+    public static final String WITH_EDUCATION = "User.education";
+    public static final String WITH_WORK_EXPERIENCE = "User.workExperience";
+
+    // Pooled sequence rather than IDENTITY, so inserts can be JDBC-batched (see IdSequenceAlignment)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_auca_seq")
+    @SequenceGenerator(name = "users_auca_seq", sequenceName = "users_auca_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Full name is required")
@@ -133,10 +145,12 @@ public class User implements UserDetails {
     // Relationships for work experience and education
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JsonManagedReference // This manages the forward part of reference
+    @BatchSize(size = 50)
     private List<WorkExperience> workExperience = new ArrayList<>();
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JsonManagedReference // This manages the forward part of reference
+    @BatchSize(size = 50)
     private List<Education> education = new ArrayList<>();
 
     // Additional fields for UserDetails implementation
@@ -149,6 +163,11 @@ public class User implements UserDetails {
     @Column(name = "credentials_non_expired")
     private Boolean credentialsNonExpired = true;
 
+    // Bumped whenever previously issued tokens must stop working (role or email change)
+    @Column(name = "token_version")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -420,6 +439,14 @@ public class User implements UserDetails {
         this.credentialsNonExpired = credentialsNonExpired;
     }
 
+    public Integer getTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -15,12 +15,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "work_experience")
+@Table(name = "work_experience", indexes = {
+        @Index(name = "idx_work_experience_user_id", columnList = "user_id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class WorkExperience {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "work_experience_seq")
+    @SequenceGenerator(name = "work_experience_seq", sequenceName = "work_experience_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Company name is required")
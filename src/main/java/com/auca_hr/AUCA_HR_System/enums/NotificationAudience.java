@@ -0,0 +1,8 @@
+package com.auca_hr.AUCA_HR_System.enums;
+
+public enum NotificationAudience {
+    // A single recipient, given by recipient id
+    USER,
+    // Every active HR user at delivery time
+    HR
+}
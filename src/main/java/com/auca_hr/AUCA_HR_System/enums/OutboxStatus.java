@@ -0,0 +1,7 @@
+package com.auca_hr.AUCA_HR_System.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.auca_hr.AUCA_HR_System.enums;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -104,6 +104,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<StandardResponse<Object>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        logger.warn("TooManyRequestsException: {}", ex.getMessage());
+        StandardResponse<Object> response = StandardResponse.builder()
+                .message(ex.getMessage())
+                .data(null)
+                .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                .build();
+        return new ResponseEntity<>(response, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<StandardResponse<Object>> handleGeneralException(Exception ex) {
         logger.error("GeneralException: {}", ex.getMessage());
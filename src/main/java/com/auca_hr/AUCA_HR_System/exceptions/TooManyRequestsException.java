@@ -0,0 +1,7 @@
+package com.auca_hr.AUCA_HR_System.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -64,16 +64,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ChatMessageRepository extends JpaRepository<ChatMessage, String> { // Fixed: String instead of Long
+public interface ChatMessageRepository extends JpaRepository<ChatMessage, String>, ChatMessageRepositoryCustom { // Fixed: String instead of Long
 
-    @Query("SELECT cm FROM ChatMessage cm WHERE " +
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.sender JOIN FETCH cm.recipient WHERE " +
             "(cm.sender.id = :userId1 AND cm.recipient.id = :userId2) OR " +
             "(cm.sender.id = :userId2 AND cm.recipient.id = :userId1) " +
             "ORDER BY cm.createdAt ASC")
     List<ChatMessage> findPrivateConversation(@Param("userId1") Long userId1,
                                               @Param("userId2") Long userId2);
 
-    @Query("SELECT cm FROM ChatMessage cm WHERE cm.chatRoom = :chatRoom ORDER BY cm.createdAt ASC")
+    @Query("SELECT cm FROM ChatMessage cm JOIN FETCH cm.sender WHERE cm.chatRoom = :chatRoom ORDER BY cm.createdAt ASC")
     List<ChatMessage> findGroupConversation(@Param("chatRoom") String chatRoom);
 
     // Fixed: Simplified query to avoid Hibernate casting issues
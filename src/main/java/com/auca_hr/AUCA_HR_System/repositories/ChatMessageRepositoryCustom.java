@@ -0,0 +1,24 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.dtos.ChatMessageDTO;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChatMessageRepositoryCustom {
+
+    // Cursor pages: (createdAt, id) strictly before/after the cursor, names joined in the same query
+
+    List<ChatMessageDTO> findPrivatePageBefore(Long userId1, Long userId2, LocalDateTime cursorTime, String cursorId,
+                                               Pageable pageable);
+
+    List<ChatMessageDTO> findPrivatePageAfter(Long userId1, Long userId2, LocalDateTime cursorTime, String cursorId,
+                                              Pageable pageable);
+
+    List<ChatMessageDTO> findGroupPageBefore(String chatRoom, LocalDateTime cursorTime, String cursorId,
+                                             Pageable pageable);
+
+    List<ChatMessageDTO> findGroupPageAfter(String chatRoom, LocalDateTime cursorTime, String cursorId,
+                                            Pageable pageable);
+}
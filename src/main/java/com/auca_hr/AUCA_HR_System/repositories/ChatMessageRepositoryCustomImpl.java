@@ -0,0 +1,114 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.dtos.ChatMessageDTO;
+import com.auca_hr.AUCA_HR_System.enums.MessageType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ChatMessageRepositoryCustomImpl implements ChatMessageRepositoryCustom {
+
+    private static final String COLUMNS =
+            "SELECT m.id, m.sender_id, s.full_names AS sender_name, m.recipient_id, r.full_names AS recipient_name, " +
+            "       m.content, m.message_type, m.chat_room, m.created_at, m.is_read, m.read_at ";
+
+    // Each direction of the pair is its own ordered, limited walk of the (sender_id, recipient_id, created_at, id)
+    // index; an OR across both directions can't be read from it in order. Avatars are left out: photo is a
+    // large object and the pages never showed it.
+    private static final String PRIVATE_PAGE_SQL = COLUMNS +
+            "FROM ((SELECT * FROM chat_messages WHERE sender_id = :userId1 AND recipient_id = :userId2 " +
+            "       AND (created_at, id) %1$s (:cursorTime, :cursorId) ORDER BY created_at %2$s, id %2$s LIMIT :limit) " +
+            "      UNION ALL " +
+            "      (SELECT * FROM chat_messages WHERE sender_id = :userId2 AND recipient_id = :userId1 " +
+            "       AND sender_id <> recipient_id " +
+            "       AND (created_at, id) %1$s (:cursorTime, :cursorId) ORDER BY created_at %2$s, id %2$s LIMIT :limit)) m " +
+            "JOIN users_auca s ON s.id = m.sender_id " +
+            "JOIN users_auca r ON r.id = m.recipient_id " +
+            "ORDER BY m.created_at %2$s, m.id %2$s " +
+            "LIMIT :limit";
+
+    private static final String GROUP_PAGE_SQL = COLUMNS +
+            "FROM chat_messages m " +
+            "JOIN users_auca s ON s.id = m.sender_id " +
+            "LEFT JOIN users_auca r ON r.id = m.recipient_id " +
+            "WHERE m.chat_room = :chatRoom AND (m.created_at, m.id) %1$s (:cursorTime, :cursorId) " +
+            "ORDER BY m.created_at %2$s, m.id %2$s " +
+            "LIMIT :limit";
+
+    private static final String PRIVATE_BEFORE_SQL = PRIVATE_PAGE_SQL.formatted("<", "DESC");
+    private static final String PRIVATE_AFTER_SQL = PRIVATE_PAGE_SQL.formatted(">", "ASC");
+    private static final String GROUP_BEFORE_SQL = GROUP_PAGE_SQL.formatted("<", "DESC");
+    private static final String GROUP_AFTER_SQL = GROUP_PAGE_SQL.formatted(">", "ASC");
+
+    private static final RowMapper<ChatMessageDTO> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp readAt = rs.getTimestamp("read_at");
+        String messageType = rs.getString("message_type");
+        return ChatMessageDTO.builder()
+                .id(rs.getString("id"))
+                .senderId(rs.getLong("sender_id"))
+                .senderName(rs.getString("sender_name"))
+                .recipientId(rs.getObject("recipient_id", Long.class))
+                .recipientName(rs.getString("recipient_name"))
+                .content(rs.getString("content"))
+                .messageType(messageType != null ? MessageType.valueOf(messageType) : null)
+                .chatRoom(rs.getString("chat_room"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .isRead(rs.getBoolean("is_read"))
+                .readAt(readAt != null ? readAt.toLocalDateTime() : null)
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ChatMessageDTO> findPrivatePageBefore(Long userId1, Long userId2, LocalDateTime cursorTime,
+                                                      String cursorId, Pageable pageable) {
+        return jdbcTemplate.query(PRIVATE_BEFORE_SQL, privateParams(userId1, userId2, cursorTime, cursorId, pageable), ROW_MAPPER);
+    }
+
+    @Override
+    public List<ChatMessageDTO> findPrivatePageAfter(Long userId1, Long userId2, LocalDateTime cursorTime,
+                                                     String cursorId, Pageable pageable) {
+        return jdbcTemplate.query(PRIVATE_AFTER_SQL, privateParams(userId1, userId2, cursorTime, cursorId, pageable), ROW_MAPPER);
+    }
+
+    @Override
+    public List<ChatMessageDTO> findGroupPageBefore(String chatRoom, LocalDateTime cursorTime, String cursorId,
+                                                    Pageable pageable) {
+        return jdbcTemplate.query(GROUP_BEFORE_SQL, groupParams(chatRoom, cursorTime, cursorId, pageable), ROW_MAPPER);
+    }
+
+    @Override
+    public List<ChatMessageDTO> findGroupPageAfter(String chatRoom, LocalDateTime cursorTime, String cursorId,
+                                                   Pageable pageable) {
+        return jdbcTemplate.query(GROUP_AFTER_SQL, groupParams(chatRoom, cursorTime, cursorId, pageable), ROW_MAPPER);
+    }
+
+    private MapSqlParameterSource privateParams(Long userId1, Long userId2, LocalDateTime cursorTime, String cursorId,
+                                                Pageable pageable) {
+        return cursorParams(cursorTime, cursorId, pageable)
+                .addValue("userId1", userId1)
+                .addValue("userId2", userId2);
+    }
+
+    private MapSqlParameterSource groupParams(String chatRoom, LocalDateTime cursorTime, String cursorId,
+                                              Pageable pageable) {
+        return cursorParams(cursorTime, cursorId, pageable)
+                .addValue("chatRoom", chatRoom);
+    }
+
+    private MapSqlParameterSource cursorParams(LocalDateTime cursorTime, String cursorId, Pageable pageable) {
+        return new MapSqlParameterSource()
+                .addValue("cursorTime", Timestamp.valueOf(cursorTime))
+                .addValue("cursorId", cursorId)
+                .addValue("limit", pageable.getPageSize());
+    }
+}
@@ -0,0 +1,82 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.entities.ConversationSummary;
+import com.auca_hr.AUCA_HR_System.entities.ConversationSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, ConversationSummaryId>,
+        ConversationSummaryRepositoryCustom {
+
+    // Latest private message per pair plus unread counts per side, derived from chat_messages
+    String REBUILD_SQL = "INSERT INTO conversation_summary (low_user_id, high_user_id, last_message_id, " +
+            "last_message_preview, last_sender_id, last_message_at, low_user_unread, high_user_unread) " +
+            "SELECT DISTINCT ON (m.low_id, m.high_id) m.low_id, m.high_id, m.id, LEFT(m.content, 200), " +
+            "m.sender_id, m.created_at, " +
+            "SUM(CASE WHEN m.recipient_id = m.low_id AND NOT m.is_read THEN 1 ELSE 0 END) OVER (PARTITION BY m.low_id, m.high_id), " +
+            "SUM(CASE WHEN m.recipient_id = m.high_id AND NOT m.is_read THEN 1 ELSE 0 END) OVER (PARTITION BY m.low_id, m.high_id) " +
+            "FROM (SELECT cm.id, cm.content, cm.sender_id, cm.recipient_id, cm.created_at, cm.is_read, " +
+            "LEAST(cm.sender_id, cm.recipient_id) AS low_id, GREATEST(cm.sender_id, cm.recipient_id) AS high_id " +
+            "FROM chat_messages cm WHERE cm.recipient_id IS NOT NULL ";
+
+    String REBUILD_ORDER = ") m ORDER BY m.low_id, m.high_id, m.created_at DESC, m.id DESC " +
+            "ON CONFLICT (low_user_id, high_user_id) DO NOTHING";
+
+    // Unread counts always accumulate; the last-message columns only move forward in time
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary (low_user_id, high_user_id, last_message_id, " +
+            "last_message_preview, last_sender_id, last_message_at, low_user_unread, high_user_unread) " +
+            "VALUES (:lowUserId, :highUserId, :messageId, :preview, :senderId, :sentAt, :lowUnread, :highUnread) " +
+            "ON CONFLICT (low_user_id, high_user_id) DO UPDATE SET " +
+            "low_user_unread = conversation_summary.low_user_unread + EXCLUDED.low_user_unread, " +
+            "high_user_unread = conversation_summary.high_user_unread + EXCLUDED.high_user_unread, " +
+            "last_message_id = CASE WHEN EXCLUDED.last_message_at >= conversation_summary.last_message_at " +
+            "THEN EXCLUDED.last_message_id ELSE conversation_summary.last_message_id END, " +
+            "last_message_preview = CASE WHEN EXCLUDED.last_message_at >= conversation_summary.last_message_at " +
+            "THEN EXCLUDED.last_message_preview ELSE conversation_summary.last_message_preview END, " +
+            "last_sender_id = CASE WHEN EXCLUDED.last_message_at >= conversation_summary.last_message_at " +
+            "THEN EXCLUDED.last_sender_id ELSE conversation_summary.last_sender_id END, " +
+            "last_message_at = GREATEST(conversation_summary.last_message_at, EXCLUDED.last_message_at)",
+            nativeQuery = true)
+    int recordMessage(@Param("lowUserId") Long lowUserId,
+                      @Param("highUserId") Long highUserId,
+                      @Param("messageId") String messageId,
+                      @Param("preview") String preview,
+                      @Param("senderId") Long senderId,
+                      @Param("sentAt") LocalDateTime sentAt,
+                      @Param("lowUnread") int lowUnread,
+                      @Param("highUnread") int highUnread);
+
+    @Modifying
+    @Query(value = "UPDATE conversation_summary SET " +
+            "low_user_unread = CASE WHEN low_user_id = :readerId THEN 0 ELSE low_user_unread END, " +
+            "high_user_unread = CASE WHEN high_user_id = :readerId THEN 0 ELSE high_user_unread END " +
+            "WHERE low_user_id = :lowUserId AND high_user_id = :highUserId",
+            nativeQuery = true)
+    int clearUnread(@Param("lowUserId") Long lowUserId,
+                    @Param("highUserId") Long highUserId,
+                    @Param("readerId") Long readerId);
+
+    @Modifying
+    @Query(value = "DELETE FROM conversation_summary WHERE low_user_id = :lowUserId AND high_user_id = :highUserId",
+            nativeQuery = true)
+    int deletePair(@Param("lowUserId") Long lowUserId, @Param("highUserId") Long highUserId);
+
+    @Modifying
+    @Query(value = REBUILD_SQL +
+            "AND cm.sender_id IN (:lowUserId, :highUserId) AND cm.recipient_id IN (:lowUserId, :highUserId) " +
+            "AND LEAST(cm.sender_id, cm.recipient_id) = :lowUserId AND GREATEST(cm.sender_id, cm.recipient_id) = :highUserId " +
+            REBUILD_ORDER,
+            nativeQuery = true)
+    int rebuildPair(@Param("lowUserId") Long lowUserId, @Param("highUserId") Long highUserId);
+
+    @Modifying
+    @Query(value = REBUILD_SQL + REBUILD_ORDER, nativeQuery = true)
+    int rebuildAll();
+}
@@ -0,0 +1,13 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.dtos.ConversationSummaryDTO;
+
+import java.util.List;
+
+public interface ConversationSummaryRepositoryCustom {
+
+    /**
+     * The user's conversations, most recent first, with partner name and the user's unread count
+     */
+    List<ConversationSummaryDTO> findInbox(Long userId, int limit);
+}
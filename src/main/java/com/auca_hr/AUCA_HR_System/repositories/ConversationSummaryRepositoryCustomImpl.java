@@ -0,0 +1,53 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.dtos.ConversationSummaryDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ConversationSummaryRepositoryCustomImpl implements ConversationSummaryRepositoryCustom {
+
+    // The user can sit on either side of the pair; each branch is a top-N scan of its own (user, last_message_at) index.
+    // photo is a large object that plain JDBC reads as its OID; the service fills avatars in through Hibernate
+    private static final String INBOX_SQL =
+            "SELECT s.partner_id, u.full_names, s.last_message_id, s.last_message_preview, " +
+            "       s.last_sender_id, s.last_message_at, s.unread " +
+            "FROM ((SELECT high_user_id AS partner_id, last_message_id, last_message_preview, last_sender_id, " +
+            "              last_message_at, low_user_unread AS unread " +
+            "       FROM conversation_summary WHERE low_user_id = :userId " +
+            "       ORDER BY last_message_at DESC LIMIT :limit) " +
+            "      UNION ALL " +
+            "      (SELECT low_user_id, last_message_id, last_message_preview, last_sender_id, " +
+            "              last_message_at, high_user_unread " +
+            "       FROM conversation_summary WHERE high_user_id = :userId AND low_user_id <> :userId " +
+            "       ORDER BY last_message_at DESC LIMIT :limit)) s " +
+            "JOIN users_auca u ON u.id = s.partner_id " +
+            "ORDER BY s.last_message_at DESC " +
+            "LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ConversationSummaryDTO> findInbox(Long userId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(INBOX_SQL, params, (rs, rowNum) -> {
+            Timestamp lastMessageAt = rs.getTimestamp("last_message_at");
+            return ConversationSummaryDTO.builder()
+                    .partnerId(rs.getLong("partner_id"))
+                    .partnerName(rs.getString("full_names"))
+                    .lastMessageId(rs.getString("last_message_id"))
+                    .lastMessage(rs.getString("last_message_preview"))
+                    .lastSenderId(rs.getObject("last_sender_id", Long.class))
+                    .lastMessageAt(lastMessageAt != null ? lastMessageAt.toLocalDateTime() : null)
+                    .unreadCount(rs.getInt("unread"))
+                    .build();
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.entities.LeaveBalance;
+import com.auca_hr.AUCA_HR_System.entities.LeaveBalanceId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, LeaveBalanceId> {
+
+    // Single-statement upsert so concurrent approvals for the same user/year/type cannot lose an update
+    @Modifying
+    @Query(value = "INSERT INTO leave_balances (user_id, leave_year, leave_type, used_days, updated_at) " +
+            "VALUES (:userId, :year, :leaveType, :delta, now()) " +
+            "ON CONFLICT (user_id, leave_year, leave_type) " +
+            "DO UPDATE SET used_days = leave_balances.used_days + EXCLUDED.used_days, updated_at = now()",
+            nativeQuery = true)
+    int addUsedDays(@Param("userId") Long userId,
+                    @Param("year") int year,
+                    @Param("leaveType") String leaveType,
+                    @Param("delta") int delta);
+
+    @Query("SELECT COALESCE(SUM(b.usedDays), 0) FROM LeaveBalance b WHERE b.id.userId = :userId AND b.id.year = :year")
+    long sumUsedDays(@Param("userId") Long userId, @Param("year") int year);
+
+    @Query("SELECT b FROM LeaveBalance b WHERE b.id.userId = :userId AND b.id.year = :year")
+    List<LeaveBalance> findByUserAndYear(@Param("userId") Long userId, @Param("year") int year);
+
+    @Query("SELECT DISTINCT b.id.year FROM LeaveBalance b")
+    Set<Integer> findLedgerYears();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM LeaveBalance b WHERE b.id.year = :year")
+    List<LeaveBalance> findByYearForUpdate(@Param("year") int year);
+}
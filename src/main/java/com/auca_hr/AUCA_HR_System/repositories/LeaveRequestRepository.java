@@ -5,15 +5,19 @@ import com.auca_hr.AUCA_HR_System.entities.User;
 import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
 import com.auca_hr.AUCA_HR_System.enums.LeaveType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
+public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long>, LeaveRequestRepositoryCustom {
 
     List<LeaveRequest> findByLecturerOrderByCreatedAtDesc(User lecturer);
 
@@ -42,6 +46,15 @@ List<LeaveRequest> findByUserEmailAndYearAndStatus(@Param("userEmail") String us
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    // Rows are (lecturerId, leaveType, startDate, endDate); used to rebuild the leave_balances ledger
+    @Query("SELECT lr.lecturer.id, lr.leaveType, lr.startDate, lr.endDate FROM LeaveRequest lr " +
+            "WHERE lr.status = 'APPROVED' AND lr.startDate <= :endDate AND lr.endDate >= :startDate")
+    List<Object[]> findApprovedLeaveSpans(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT MIN(lr.startDate) FROM LeaveRequest lr WHERE lr.status = 'APPROVED'")
+    LocalDate findEarliestApprovedStartDate();
+
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.status = 'PENDING' ORDER BY lr.createdAt ASC")
     List<LeaveRequest> findAllPendingLeaveRequests();
 
@@ -52,21 +65,47 @@ List<LeaveRequest> findByUserEmailAndYearAndStatus(@Param("userEmail") String us
                                                      @Param("startDate") LocalDate startDate,
                                                      @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.lecturer = :lecturer AND lr.status IN ('PENDING', 'APPROVED') " +
+            "AND lr.startDate <= :endDate AND lr.endDate >= :startDate")
+    List<LeaveRequest> findOverlappingActiveLeaves(@Param("lecturer") User lecturer,
+                                                   @Param("startDate") LocalDate startDate,
+                                                   @Param("endDate") LocalDate endDate);
+
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.leaveType = :leaveType AND lr.status = 'APPROVED' " +
             "AND lr.lecturer = :lecturer AND YEAR(lr.startDate) = :year")
     List<LeaveRequest> findApprovedLeavesByTypeAndYear(@Param("lecturer") User lecturer,
                                                        @Param("leaveType") LeaveType leaveType,
                                                        @Param("year") int year);
 
+    // Compare-and-set status transition; returns 0 when another caller already moved the request on
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LeaveRequest lr SET lr.status = :newStatus, lr.approvedBy = :approvedBy, lr.hrComments = :comments, " +
+            "lr.approvedAt = :now, lr.updatedAt = :now WHERE lr.id = :id AND lr.status = :expectedStatus")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("expectedStatus") LeaveStatus expectedStatus,
+                         @Param("newStatus") LeaveStatus newStatus,
+                         @Param("approvedBy") User approvedBy,
+                         @Param("comments") String comments,
+                         @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LeaveRequest lr SET lr.status = 'CANCELLED', lr.updatedAt = :now " +
+            "WHERE lr.id = :id AND lr.lecturer.id = :lecturerId AND lr.status = :expectedStatus")
+    int cancelIfStatus(@Param("id") Long id,
+                       @Param("lecturerId") Long lecturerId,
+                       @Param("expectedStatus") LeaveStatus expectedStatus,
+                       @Param("now") LocalDateTime now);
+
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.lecturer LEFT JOIN FETCH lr.approvedBy WHERE lr.id = :id")
+    Optional<LeaveRequest> findWithUsersById(@Param("id") Long id);
+
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.lecturer WHERE lr.id IN :ids")
+    List<LeaveRequest> findAllWithLecturerByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.status = 'PENDING'")
     long countPendingRequests();
 
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :date AND lr.endDate >= :date " +
             "AND lr.status = 'APPROVED' ORDER BY lr.startDate")
     List<LeaveRequest> findLeaveRequestsForDate(@Param("date") LocalDate date);
-
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.lecturer.fullNames LIKE %:searchTerm% " +
-          "OR lr.description LIKE %:searchTerm% " +
-            "ORDER BY lr.createdAt DESC")
-    List<LeaveRequest> searchLeaveRequests(@Param("searchTerm") String searchTerm);
 }
\ No newline at end of file
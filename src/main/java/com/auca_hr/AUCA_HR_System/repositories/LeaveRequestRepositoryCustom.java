@@ -0,0 +1,25 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.dtos.LeaveRequestDTO;
+import com.auca_hr.AUCA_HR_System.dtos.LeaveSearchCriteria;
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface LeaveRequestRepositoryCustom {
+
+    /**
+     * Move every PENDING request in ids to newStatus in one statement and return the ids that actually changed
+     */
+    Set<Long> transitionAllFromPending(Collection<Long> ids, LeaveStatus newStatus, Long approvedById,
+                                       String comments, LocalDateTime now);
+
+    /**
+     * Full-text search over description and HR comments (and the lecturer's name), with optional filters.
+     * Ranked by relevance when there is a search term, newest first otherwise.
+     */
+    List<LeaveRequestDTO> search(LeaveSearchCriteria criteria, int offset, int limit);
+}
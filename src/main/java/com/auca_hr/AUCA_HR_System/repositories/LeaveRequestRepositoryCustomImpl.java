@@ -0,0 +1,137 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.dtos.LeaveRequestDTO;
+import com.auca_hr.AUCA_HR_System.dtos.LeaveSearchCriteria;
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+import com.auca_hr.AUCA_HR_System.enums.LeaveType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class LeaveRequestRepositoryCustomImpl implements LeaveRequestRepositoryCustom {
+
+    private static final String TRANSITION_FROM_PENDING_SQL =
+            "UPDATE leave_requests SET status = :newStatus, approved_by = :approvedBy, hr_comments = :comments, " +
+            "approved_at = :now, updated_at = :now " +
+            "WHERE id IN (:ids) AND status = 'PENDING' " +
+            "RETURNING id";
+
+    // Stemmed for the free text; names are matched word for word
+    public static final String TEXT_SEARCH_CONFIG = "english";
+
+    // Must stay identical to the indexed expression on users_auca, or the planner will not use the index
+    public static final String NAME_VECTOR = "to_tsvector('simple', coalesce(full_names, ''))";
+
+    private static final String MATCHING_LECTURERS_SQL =
+            "SELECT id FROM users_auca WHERE " + NAME_VECTOR + " @@ websearch_to_tsquery('simple', :term)";
+
+    private static final String SEARCH_COLUMNS =
+            "SELECT lr.id, lr.lecturer_id, l.full_names AS lecturer_name, l.email AS lecturer_email, lr.leave_type, " +
+            "       lr.start_date, lr.end_date, lr.description, lr.status, lr.approved_by, a.full_names AS approved_by_name, " +
+            "       lr.hr_comments, lr.created_at, lr.updated_at, lr.approved_at " +
+            "FROM leave_requests lr " +
+            "JOIN users_auca l ON l.id = lr.lecturer_id " +
+            "LEFT JOIN users_auca a ON a.id = lr.approved_by ";
+
+    private static final String TEXT_MATCH =
+            "lr.search_vector @@ websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :term)";
+
+    private static final RowMapper<LeaveRequestDTO> LEAVE_MAPPER = (rs, rowNum) -> {
+        LeaveRequestDTO dto = new LeaveRequestDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setLecturerId(rs.getLong("lecturer_id"));
+        dto.setLecturerName(rs.getString("lecturer_name"));
+        dto.setLecturerEmail(rs.getString("lecturer_email"));
+        dto.setLeaveType(rs.getString("leave_type") != null ? LeaveType.valueOf(rs.getString("leave_type")) : null);
+        dto.setStartDate(rs.getObject("start_date", LocalDate.class));
+        dto.setEndDate(rs.getObject("end_date", LocalDate.class));
+        dto.setDescription(rs.getString("description"));
+        dto.setStatus(rs.getString("status") != null ? LeaveStatus.valueOf(rs.getString("status")) : null);
+        dto.setApprovedById(rs.getObject("approved_by", Long.class));
+        dto.setApprovedByName(rs.getString("approved_by_name"));
+        dto.setHrComments(rs.getString("hr_comments"));
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        dto.setApprovedAt(rs.getObject("approved_at", LocalDateTime.class));
+        if (dto.getStartDate() != null && dto.getEndDate() != null) {
+            dto.setLeaveDuration(ChronoUnit.DAYS.between(dto.getStartDate(), dto.getEndDate()) + 1);
+        }
+        return dto;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<Long> transitionAllFromPending(Collection<Long> ids, LeaveStatus newStatus, Long approvedById,
+                                              String comments, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("newStatus", newStatus.name())
+                .addValue("approvedBy", approvedById)
+                .addValue("comments", comments)
+                .addValue("now", now);
+
+        return new HashSet<>(jdbcTemplate.queryForList(TRANSITION_FROM_PENDING_SQL, params, Long.class));
+    }
+
+    @Override
+    public List<LeaveRequestDTO> search(LeaveSearchCriteria criteria, int offset, int limit) {
+        StringBuilder sql = new StringBuilder(SEARCH_COLUMNS).append("WHERE TRUE ");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+
+        boolean ranked = StringUtils.hasText(criteria.getSearchTerm());
+        if (ranked) {
+            params.addValue("term", criteria.getSearchTerm().trim());
+            // Lecturers are resolved first, so both branches are plain index conditions the planner can BitmapOr;
+            // a subquery inside the OR would be a per-row filter over the whole table
+            List<Long> lecturerIds = jdbcTemplate.queryForList(MATCHING_LECTURERS_SQL, params, Long.class);
+            if (lecturerIds.isEmpty()) {
+                sql.append("AND ").append(TEXT_MATCH).append(' ');
+            } else {
+                sql.append("AND (").append(TEXT_MATCH).append(" OR lr.lecturer_id IN (:lecturerIds)) ");
+                params.addValue("lecturerIds", lecturerIds);
+            }
+        }
+        if (criteria.getStatus() != null) {
+            sql.append("AND lr.status = :status ");
+            params.addValue("status", criteria.getStatus().name());
+        }
+        if (criteria.getLeaveType() != null) {
+            sql.append("AND lr.leave_type = :leaveType ");
+            params.addValue("leaveType", criteria.getLeaveType().name());
+        }
+        if (criteria.getFrom() != null) {
+            sql.append("AND lr.end_date >= :from ");
+            params.addValue("from", criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            sql.append("AND lr.start_date <= :to ");
+            params.addValue("to", criteria.getTo());
+        }
+
+        sql.append(ranked
+                ? "ORDER BY ts_rank_cd(lr.search_vector, websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :term)) DESC, " +
+                  "lr.created_at DESC, lr.id DESC "
+                : "ORDER BY lr.created_at DESC, lr.id DESC ");
+        sql.append("OFFSET :offset LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, LEAVE_MAPPER);
+    }
+}
@@ -9,10 +9,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationRepositoryCustom {
 
     List<Notification> findByRecipientOrderByCreatedAtDesc(User recipient);
 
@@ -26,6 +27,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByTypeOrderByCreatedAtDesc(NotificationType type);
 
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :recipientId AND n.isRead = false")
+    long countUnreadByRecipientId(@Param("recipientId") Long recipientId);
+
+    // Rows are (recipientId, unreadCount); recipients without unread notifications are absent
+    @Query("SELECT n.recipient.id, COUNT(n) FROM Notification n WHERE n.recipient.id IN :recipientIds " +
+            "AND n.isRead = false GROUP BY n.recipient.id")
+    List<Object[]> countUnreadByRecipientIds(@Param("recipientIds") Collection<Long> recipientIds);
+
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.recipient = :recipient AND n.isRead = false")
     void markAllAsReadByRecipient(@Param("recipient") User recipient);
@@ -0,0 +1,14 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.entities.Notification;
+
+import java.util.List;
+
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Insert notifications with one JDBC batch and set the generated ids on them.
+     * The notifications are not attached to the persistence context.
+     */
+    void insertAll(List<Notification> notifications);
+}
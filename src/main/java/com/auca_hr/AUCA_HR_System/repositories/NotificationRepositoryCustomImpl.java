@@ -0,0 +1,56 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.entities.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (recipient_id, sender_id, leave_request_id, title, message, type, is_read, created_at) " +
+            "VALUES (:recipientId, :senderId, :leaveRequestId, :title, :message, :type, :isRead, :createdAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = new SqlParameterSource[notifications.size()];
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            if (notification.getCreatedAt() == null) {
+                notification.setCreatedAt(now);
+            }
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("recipientId", notification.getRecipient().getId())
+                    .addValue("senderId", notification.getSender() != null ? notification.getSender().getId() : null)
+                    .addValue("leaveRequestId", notification.getLeaveRequest() != null ? notification.getLeaveRequest().getId() : null)
+                    .addValue("title", notification.getTitle())
+                    .addValue("message", notification.getMessage())
+                    .addValue("type", notification.getType() != null ? notification.getType().name() : null)
+                    .addValue("isRead", notification.isRead())
+                    .addValue("createdAt", notification.getCreatedAt());
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, keyHolder, new String[]{"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < notifications.size() && i < keys.size(); i++) {
+            notifications.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import com.auca_hr.AUCA_HR_System.entities.ReportJob;
+import com.auca_hr.AUCA_HR_System.enums.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    Optional<ReportJob> findFirstByRequestHashAndStatusAndCacheHitFalseAndCompletedAtAfterOrderByCompletedAtDesc(
+            String requestHash, ReportJobStatus status, LocalDateTime completedAfter);
+
+    Optional<ReportJob> findFirstByRequestHashAndRequestedByAndStatusIn(
+            String requestHash, String requestedBy, Collection<ReportJobStatus> statuses);
+
+    Optional<ReportJob> findByIdAndRequestedBy(String id, String requestedBy);
+
+    List<ReportJob> findByRequestedByOrderByCreatedAtDesc(String requestedBy);
+
+    long countByStatus(ReportJobStatus status);
+
+    // Jobs a previous run of this node left unfinished
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = :failed, j.errorMessage = :message, j.completedAt = :now " +
+            "WHERE j.status IN :statuses")
+    int failAll(@Param("statuses") Collection<ReportJobStatus> statuses,
+                @Param("failed") ReportJobStatus failed,
+                @Param("message") String message,
+                @Param("now") LocalDateTime now);
+
+    List<ReportJob> findByCreatedAtBefore(LocalDateTime createdBefore);
+
+    @Query("SELECT COUNT(j) > 0 FROM ReportJob j WHERE j.storedFile = :storedFile AND j.createdAt >= :createdAfter")
+    boolean isFileInUse(@Param("storedFile") String storedFile, @Param("createdAfter") LocalDateTime createdAfter);
+}
@@ -1,20 +1,27 @@
 package com.auca_hr.AUCA_HR_System.repositories;
 
 
+import com.auca_hr.AUCA_HR_System.dtos.UserProfileDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserSearchResultDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserSummaryDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserTokenState;
 import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.ContractType;
 import com.auca_hr.AUCA_HR_System.enums.UserRole;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.awt.print.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     Optional<User> findByEmail(String email);
 
@@ -31,9 +38,57 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByPhoneNumber(String phoneNumber);
 
-    List<User> findByRole(UserRole role);
+    // List and lookup projections: only the selected columns are read, and no entity is managed
+    String SUMMARY = "new com.auca_hr.AUCA_HR_System.dtos.UserSummaryDTO(u.id, u.fullNames, u.email, u.phoneNumber, " +
+            "u.workingPosition, u.academicRank, u.contractType, u.role, u.active) ";
 
-    List<User> findByFullNamesContainingIgnoreCase(String username);
+    String PROFILE = "new com.auca_hr.AUCA_HR_System.dtos.UserProfileDTO(u.id, u.fullNames, u.email, u.phoneNumber, " +
+            "u.dateOfBirth, u.gender, u.maritalStatus, u.nationality, u.academicRank, u.contractType, " +
+            "u.workingPosition, u.photo, u.role, u.active, u.createdAt) ";
 
+    @Query("SELECT " + SUMMARY + "FROM User u WHERE u.role = :role ORDER BY u.fullNames, u.id")
+    List<UserSummaryDTO> findSummariesByRole(@Param("role") UserRole role);
+
+    @Query("SELECT " + PROFILE + "FROM User u WHERE u.email = :email")
+    Optional<UserProfileDTO> findProfileByEmail(@Param("email") String email);
+
+    // Name card for each id; the caller restores any ordering it needs
+    @Query("SELECT new com.auca_hr.AUCA_HR_System.dtos.UserSearchResultDTO(u.id, u.fullNames, u.email, " +
+            "u.workingPosition, u.photo, u.role) FROM User u WHERE u.id IN :ids")
+    List<UserSearchResultDTO> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Offset page over the directory; a Slice skips the COUNT query that Page would run on every call
+    @Query("SELECT " + SUMMARY + "FROM User u WHERE (:role IS NULL OR u.role = :role) " +
+            "AND (:contractType IS NULL OR u.contractType = :contractType)")
+    Slice<UserSummaryDTO> findSliceByFilters(@Param("role") UserRole role,
+                                   @Param("contractType") ContractType contractType,
+                                   Pageable pageable);
+
+    // Keyset (seek) page: resumes after the last id seen, so deep pages cost the same as the first one
+    @Query("SELECT " + SUMMARY + "FROM User u WHERE u.id > :afterId " +
+            "AND (:role IS NULL OR u.role = :role) " +
+            "AND (:contractType IS NULL OR u.contractType = :contractType) " +
+            "ORDER BY u.id ASC")
+    List<UserSummaryDTO> findPageAfterId(@Param("afterId") Long afterId,
+                               @Param("role") UserRole role,
+                               @Param("contractType") ContractType contractType,
+                               Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE (:role IS NULL OR u.role = :role) " +
+            "AND (:contractType IS NULL OR u.contractType = :contractType)")
+    long countByFilters(@Param("role") UserRole role,
+                        @Param("contractType") ContractType contractType);
+
+    // Profile loading: one query per collection, whatever the number of users
+    @EntityGraph(User.WITH_EDUCATION)
+    List<User> findWithEducationByIdIn(Collection<Long> ids);
+
+    @EntityGraph(User.WITH_WORK_EXPERIENCE)
+    List<User> findWithWorkExperienceByIdIn(Collection<Long> ids);
+
+    // Two-column lookup backing the stateless JWT revocation check
+    @Query("SELECT new com.auca_hr.AUCA_HR_System.dtos.UserTokenState(u.tokenVersion, u.active) " +
+            "FROM User u WHERE u.id = :id")
+    Optional<UserTokenState> findTokenStateById(@Param("id") Long id);
 
 }
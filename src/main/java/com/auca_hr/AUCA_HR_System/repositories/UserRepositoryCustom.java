@@ -0,0 +1,24 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Ids of users whose name, email or position contains the query, best matches first.
+     * With trigram set the pg_trgm index is used and near misses (typos) match too;
+     * without it only exact substrings match.
+     */
+    List<Long> searchIds(String query, Long excludeUserId, int limit, boolean trigram);
+
+    /**
+     * Which of the given identifiers already belong to a user, checked in a single query
+     */
+    TakenIdentifiers findTakenIdentifiers(Collection<String> emails, Collection<String> nationalIds,
+                                          Collection<String> phoneNumbers);
+
+    record TakenIdentifiers(Set<String> emails, Set<String> nationalIds, Set<String> phoneNumbers) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.auca_hr.AUCA_HR_System.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    // Must stay identical to the indexed expression, or the planner will not use the index
+    public static final String SEARCH_TEXT =
+            "(lower(full_names) || ' ' || lower(email) || ' ' || lower(working_position))";
+
+    // Ids only: photo is a large object that plain JDBC reads as its OID, so the cards are loaded through Hibernate
+    private static final String COLUMNS = "SELECT id FROM users_auca ";
+
+    // Substring hits and near misses both come off the GIN index; names starting with the query rank first
+    private static final String TRIGRAM_SQL = COLUMNS +
+            "WHERE (" + SEARCH_TEXT + " LIKE :contains OR :query <% " + SEARCH_TEXT + ") " +
+            "AND id <> :excludeId " +
+            "ORDER BY lower(full_names) LIKE :prefix DESC, word_similarity(:query, " + SEARCH_TEXT + ") DESC, " +
+            "full_names, id " +
+            "LIMIT :limit";
+
+    // Queries shorter than a trigram: prefix of the name only, off the text_pattern_ops index
+    private static final String PREFIX_SQL = COLUMNS +
+            "WHERE lower(full_names) LIKE :prefix AND id <> :excludeId " +
+            "ORDER BY full_names, id " +
+            "LIMIT :limit";
+
+    // No pg_trgm: a sequential scan, but still bounded and projected
+    private static final String CONTAINS_SQL = COLUMNS +
+            "WHERE " + SEARCH_TEXT + " LIKE :contains AND id <> :excludeId " +
+            "ORDER BY lower(full_names) LIKE :prefix DESC, full_names, id " +
+            "LIMIT :limit";
+
+    // Each IN list is served by the unique index on its column; Postgres ORs the three bitmap scans
+    private static final String TAKEN_SQL = "SELECT email, national_id, phone_number FROM users_auca " +
+            "WHERE email IN (:emails) OR national_id IN (:nationalIds) OR phone_number IN (:phoneNumbers)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> searchIds(String query, Long excludeUserId, int limit, boolean trigram) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(normalized);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", normalized)
+                .addValue("contains", "%" + escaped + "%")
+                .addValue("prefix", escaped + "%")
+                .addValue("excludeId", excludeUserId != null ? excludeUserId : -1L)
+                .addValue("limit", limit);
+
+        String sql = normalized.length() < 3 ? PREFIX_SQL : trigram ? TRIGRAM_SQL : CONTAINS_SQL;
+        return jdbcTemplate.queryForList(sql, params, Long.class);
+    }
+
+    @Override
+    public TakenIdentifiers findTakenIdentifiers(Collection<String> emails, Collection<String> nationalIds,
+                                                 Collection<String> phoneNumbers) {
+        TakenIdentifiers taken = new TakenIdentifiers(new HashSet<>(), new HashSet<>(), new HashSet<>());
+        if (emails.isEmpty() && nationalIds.isEmpty() && phoneNumbers.isEmpty()) {
+            return taken;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("emails", nonEmpty(emails))
+                .addValue("nationalIds", nonEmpty(nationalIds))
+                .addValue("phoneNumbers", nonEmpty(phoneNumbers));
+
+        jdbcTemplate.query(TAKEN_SQL, params, rs -> {
+            addIfRequested(taken.emails(), emails, rs.getString("email"));
+            addIfRequested(taken.nationalIds(), nationalIds, rs.getString("national_id"));
+            addIfRequested(taken.phoneNumbers(), phoneNumbers, rs.getString("phone_number"));
+        });
+        return taken;
+    }
+
+    // An empty IN () is not valid SQL; a null never matches
+    private static Collection<String> nonEmpty(Collection<String> values) {
+        return values.isEmpty() ? Collections.singletonList(null) : values;
+    }
+
+    private static void addIfRequested(Set<String> taken, Collection<String> requested, String value) {
+        if (value != null && requested.contains(value)) {
+            taken.add(value);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
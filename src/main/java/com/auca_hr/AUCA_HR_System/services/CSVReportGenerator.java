@@ -2,44 +2,73 @@ package com.auca_hr.AUCA_HR_System.services;
 
 import com.opencsv.CSVWriter;
 import org.springframework.stereotype.Service;
-import java.io.ByteArrayOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 @Service("CSV")
 public class CSVReportGenerator implements ReportGenerator {
 
+    private static final int ERROR_CHECK_INTERVAL = 1000;
+
     @Override
-    public byte[] generateReport(List<Map<String, Object>> data, String[] headers, String fileName) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            OutputStreamWriter osw = new OutputStreamWriter(baos);
-            CSVWriter writer = new CSVWriter(osw);
-
-            // Write headers
-            writer.writeNext(headers);
-
-            // Write data
-            for (Map<String, Object> row : data) {
-                String[] values = new String[headers.length];
+    public ReportWriter open(String[] headers, String title, OutputStream out) {
+        CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+
+        // Write headers
+        writer.writeNext(headers);
+
+        return new ReportWriter() {
+            private final String[] values = new String[headers.length];
+            private long rows;
+
+            @Override
+            public void writeRow(Map<String, Object> row) throws IOException {
                 for (int i = 0; i < headers.length; i++) {
                     Object value = row.get(headers[i]);
                     values[i] = value != null ? value.toString() : "";
                 }
+                writeValues();
+            }
+
+            // Columns are read by position, in header order, with no map lookups or boxing
+            @Override
+            public void writeBatch(RowBatch batch) throws IOException {
+                for (int r = 0; r < batch.size(); r++) {
+                    for (int c = 0; c < values.length; c++) {
+                        String value = batch.text(r, c);
+                        values[c] = value != null ? value : "";
+                    }
+                    writeValues();
+                }
+            }
+
+            private void writeValues() throws IOException {
                 writer.writeNext(values);
+
+                // CSVWriter swallows write errors; surface them (e.g. a closed download) instead of reading on
+                if (++rows % ERROR_CHECK_INTERVAL == 0 && writer.checkError()) {
+                    throw new IOException("Error writing CSV report");
+                }
             }
 
-            writer.close();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating CSV report", e);
-        }
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+                if (writer.checkError()) {
+                    throw new IOException("Error writing CSV report");
+                }
+            }
+        };
     }
 
     @Override
     public String getContentType() {
-        return "text/csv";
+        return "text/csv; charset=UTF-8";
     }
 
     @Override
@@ -47,5 +76,3 @@ public class CSVReportGenerator implements ReportGenerator {
         return ".csv";
     }
 }
-
-
@@ -0,0 +1,132 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.utils.TimeOrderedIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off rewrite of random (v4) chat message ids into time-ordered UUIDv7 ids derived from created_at,
+ * so the whole table sorts by id. Runs in batches at startup when app.chat.id-migration.enabled is set;
+ * each batch is its own transaction, so the migration can be stopped and resumed at any point.
+ * Cursors handed out before the migration still work because they carry created_at as well as the id.
+ *
+ * Batches walk a (created_at, id) keyset over idx_chat_messages_created, so each one starts where the
+ * last stopped instead of rescanning migrated rows; rows without created_at are picked up at the end.
+ * Locked rows are waited for rather than skipped, since the cursor never comes back for them.
+ */
+@Component
+@Slf4j
+public class ChatMessageIdMigration {
+
+    private static final String SELECT_LEGACY_SQL =
+            "SELECT id, created_at FROM chat_messages WHERE (created_at, id) > (?, ?) " +
+            "ORDER BY created_at, id LIMIT ? FOR UPDATE";
+    private static final String SELECT_LEGACY_UNDATED_SQL =
+            "SELECT id, created_at FROM chat_messages WHERE created_at IS NULL AND substr(id, 15, 1) <> '7' " +
+            "LIMIT ? FOR UPDATE";
+    private static final String UPDATE_MESSAGE_SQL = "UPDATE chat_messages SET id = ? WHERE id = ?";
+    private static final String UPDATE_SUMMARY_SQL =
+            "UPDATE conversation_summary SET last_message_id = ? WHERE last_message_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public ChatMessageIdMigration(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.chat.id-migration.enabled:false}") boolean enabled,
+                                  @Value("${app.chat.id-migration.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+
+        long total = 0;
+        // Before any stored message; "" sorts below every id
+        Batch batch = new Batch(0, Timestamp.valueOf(LocalDateTime.of(1, 1, 1, 0, 0)), "", 0);
+        do {
+            Timestamp afterCreatedAt = batch.lastCreatedAt();
+            String afterId = batch.lastId();
+            batch = transactionTemplate.execute(status -> migrateBatch(afterCreatedAt, afterId));
+            total += batch.migrated();
+        } while (batch.scanned() == batchSize);
+
+        int migrated;
+        do {
+            Integer rows = transactionTemplate.execute(status -> migrateUndatedBatch());
+            migrated = rows != null ? rows : 0;
+            total += migrated;
+        } while (migrated == batchSize);
+
+        if (total > 0) {
+            log.info("Chat message id migration: {} ids rewritten to time-ordered ids", total);
+        }
+    }
+
+    /**
+     * Rewrite the legacy ids among the next batchSize rows after the cursor; already migrated rows only move it on
+     */
+    private Batch migrateBatch(Timestamp afterCreatedAt, String afterId) {
+        List<Object[]> changes = new ArrayList<>();
+        Timestamp[] lastCreatedAt = {afterCreatedAt};
+        String[] lastId = {afterId};
+        int[] scanned = {0};
+        jdbcTemplate.query(SELECT_LEGACY_SQL, rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            String id = rs.getString("id");
+            if (!isTimeOrdered(id)) {
+                changes.add(new Object[]{TimeOrderedIdGenerator.forTimestamp(createdAt.getTime()), id});
+            }
+            lastCreatedAt[0] = createdAt;
+            lastId[0] = id;
+            scanned[0]++;
+        }, afterCreatedAt, afterId, batchSize);
+
+        apply(changes);
+        return new Batch(scanned[0], lastCreatedAt[0], lastId[0], changes.size());
+    }
+
+    private int migrateUndatedBatch() {
+        List<Object[]> changes = new ArrayList<>();
+        jdbcTemplate.query(SELECT_LEGACY_UNDATED_SQL, rs -> {
+            changes.add(new Object[]{TimeOrderedIdGenerator.forTimestamp(System.currentTimeMillis()), rs.getString("id")});
+        }, batchSize);
+
+        apply(changes);
+        return changes.size();
+    }
+
+    private void apply(List<Object[]> changes) {
+        if (!changes.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_MESSAGE_SQL, changes);
+            // Served by idx_conversation_summary_last_message rather than a scan per message
+            jdbcTemplate.batchUpdate(UPDATE_SUMMARY_SQL, changes);
+        }
+    }
+
+    private static boolean isTimeOrdered(String id) {
+        return id != null && id.length() > 14 && id.charAt(14) == '7';
+    }
+
+    private record Batch(int scanned, Timestamp lastCreatedAt, String lastId, int migrated) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.auca_hr.AUCA_HR_System.services;
 
 import com.auca_hr.AUCA_HR_System.dtos.ChatMessageDTO;
+import com.auca_hr.AUCA_HR_System.dtos.ChatMessagePage;
+import com.auca_hr.AUCA_HR_System.dtos.ConversationSummaryDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserSearchResultDTO;
 import com.auca_hr.AUCA_HR_System.entities.ChatMessage;
 import com.auca_hr.AUCA_HR_System.entities.User;
 import com.auca_hr.AUCA_HR_System.enums.MessageType;
@@ -8,16 +11,26 @@ import com.auca_hr.AUCA_HR_System.repositories.ChatMessageRepository;
 import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,8 +39,13 @@ import java.util.stream.Collectors;
 @Transactional
 public class ChatService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_PARTNERS = 200;
+
     private final ChatMessageRepository chatMessageRepository;
     private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
+    private final ConversationSummaryService conversationSummaryService;
     private final SimpMessagingTemplate messagingTemplate;
 
     public void deleteMessage(String messageId, String username) {
@@ -39,7 +57,13 @@ public class ChatService {
             throw new AccessDeniedException("You can only delete your own messages");
         }
 
+        User recipient = message.getRecipient();
         chatMessageRepository.delete(message);
+
+        if (recipient != null) {
+            chatMessageRepository.flush();
+            conversationSummaryService.refresh(message.getSender().getId(), recipient.getId());
+        }
     }
     public ChatMessageDTO sendPrivateMessage(String senderUsername, Long recipientId, String content) {
         // Add validation first
@@ -51,7 +75,7 @@ public class ChatService {
             throw new IllegalArgumentException("Message content cannot be empty");
         }
 
-        User sender = userRepository.findByEmail(senderUsername)
+        User sender = userLookupService.findReferenceByEmail(senderUsername)
                 .orElseThrow(() -> new RuntimeException("Sender not found: " + senderUsername));
 
         User recipient = userRepository.findById(recipientId)
@@ -67,6 +91,7 @@ public class ChatService {
                 .build();
 
         ChatMessage savedMessage = chatMessageRepository.save(message);
+        conversationSummaryService.recordMessage(savedMessage);
         ChatMessageDTO messageDTO = convertToDTO(savedMessage);
 
         // Send to recipient via WebSocket
@@ -125,7 +150,7 @@ public class ChatService {
 //    }
 
     public ChatMessageDTO sendGroupMessage(String senderUsername, String chatRoom, String content) {
-        User sender = userRepository.findByEmail(senderUsername)
+        User sender = userLookupService.findReferenceByEmail(senderUsername)
                 .orElseThrow(() -> new RuntimeException("Sender not found"));
 
         ChatMessage message = ChatMessage.builder()
@@ -146,7 +171,7 @@ public class ChatService {
     }
 
     public List<ChatMessageDTO> getPrivateConversation(String username, Long otherUserId) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         List<ChatMessage> messages = chatMessageRepository.findPrivateConversation(user.getId(), otherUserId);
@@ -158,32 +183,80 @@ public class ChatService {
         return messages.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
-    public List<User> getConversationPartners(String username) {
-        User user = userRepository.findByEmail(username)
+    /**
+     * One page of a private conversation. With no cursor the latest messages are returned;
+     * "before" pages backwards through history and "after" picks up messages newer than a cursor.
+     */
+    @Transactional(readOnly = true)
+    public ChatMessagePage getPrivateConversationPage(String username, Long otherUserId,
+                                                      String before, String after, int size) {
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = user.getId();
+
+        return page(before, after, size,
+                (cursor, pageable) -> chatMessageRepository.findPrivatePageBefore(
+                        userId, otherUserId, cursor.createdAt(), cursor.id(), pageable),
+                (cursor, pageable) -> chatMessageRepository.findPrivatePageAfter(
+                        userId, otherUserId, cursor.createdAt(), cursor.id(), pageable));
+    }
 
-        return chatMessageRepository.findConversationPartners(user.getId());
+    @Transactional(readOnly = true)
+    public ChatMessagePage getGroupConversationPage(String chatRoom, String before, String after, int size) {
+        return page(before, after, size,
+                (cursor, pageable) -> chatMessageRepository.findGroupPageBefore(
+                        chatRoom, cursor.createdAt(), cursor.id(), pageable),
+                (cursor, pageable) -> chatMessageRepository.findGroupPageAfter(
+                        chatRoom, cursor.createdAt(), cursor.id(), pageable));
+    }
+
+    /**
+     * The user's private conversations, most recent first, each with its last message and unread count
+     */
+    @Transactional(readOnly = true)
+    public List<ConversationSummaryDTO> getConversations(String username, int limit) {
+        User user = userLookupService.findReferenceByEmail(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return conversationSummaryService.getInbox(user.getId(), limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSearchResultDTO> getConversationPartners(String username) {
+        User user = userLookupService.findReferenceByEmail(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<Long> partnerIds = conversationSummaryService.getInboxPartnerIds(user.getId(), MAX_PARTNERS);
+
+        // Keep the inbox's recency order
+        Map<Long, UserSearchResultDTO> partners = userRepository.findCardsByIdIn(partnerIds).stream()
+                .collect(Collectors.toMap(UserSearchResultDTO::getId, Function.identity()));
+        return partnerIds.stream()
+                .map(partners::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     public long getUnreadMessagesCount(String username) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return chatMessageRepository.countUnreadMessages(user.getId());
     }
 
     public long getUnreadMessagesFromSender(String username, Long senderId) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return chatMessageRepository.countUnreadMessagesFromSender(user.getId(), senderId);
     }
 
     public void markMessagesAsRead(String username, Long senderId) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         chatMessageRepository.markMessagesAsRead(user.getId(), senderId, LocalDateTime.now());
+        conversationSummaryService.markRead(user.getId(), senderId);
 
         // Notify sender that messages have been read
         messagingTemplate.convertAndSendToUser(
@@ -193,6 +266,68 @@ public class ChatService {
         );
     }
 
+    private ChatMessagePage page(String before, String after, int size,
+                                 BiFunction<Cursor, Pageable, List<ChatMessageDTO>> beforeQuery,
+                                 BiFunction<Cursor, Pageable, List<ChatMessageDTO>> afterQuery) {
+        if (before != null && after != null) {
+            throw new RuntimeException("Specify either before or after, not both");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells us whether another page exists without a count query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        if (after != null) {
+            List<ChatMessageDTO> rows = new ArrayList<>(afterQuery.apply(Cursor.decode(after), pageable));
+            boolean hasNewer = rows.size() > pageSize;
+            List<ChatMessageDTO> messages = hasNewer ? rows.subList(0, pageSize) : rows;
+            return toPage(messages, true, hasNewer, after);
+        }
+
+        Cursor cursor = before != null ? Cursor.decode(before) : Cursor.LATEST;
+        List<ChatMessageDTO> rows = new ArrayList<>(beforeQuery.apply(cursor, pageable));
+        boolean hasOlder = rows.size() > pageSize;
+        List<ChatMessageDTO> messages = hasOlder ? rows.subList(0, pageSize) : rows;
+        Collections.reverse(messages);
+        return toPage(messages, hasOlder, before != null, before);
+    }
+
+    private ChatMessagePage toPage(List<ChatMessageDTO> messages, boolean hasOlder, boolean hasNewer, String requestCursor) {
+        if (messages.isEmpty()) {
+            // Nothing past the cursor: keep handing the same cursor back so polling can continue from it
+            return new ChatMessagePage(List.of(), requestCursor, requestCursor, hasOlder, hasNewer);
+        }
+        ChatMessageDTO oldest = messages.get(0);
+        ChatMessageDTO newest = messages.get(messages.size() - 1);
+        return new ChatMessagePage(new ArrayList<>(messages),
+                Cursor.encode(oldest.getCreatedAt(), oldest.getId()),
+                Cursor.encode(newest.getCreatedAt(), newest.getId()),
+                hasOlder, hasNewer);
+    }
+
+    /**
+     * Keyset position in a conversation: (createdAt, id) of a message, sent to clients as opaque base64url
+     */
+    private record Cursor(LocalDateTime createdAt, String id) {
+
+        // Sorts after every stored message; "" is below any id, but nothing shares this timestamp anyway
+        static final Cursor LATEST = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), "");
+
+        static String encode(LocalDateTime createdAt, String id) {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+
     private ChatMessageDTO convertToDTO(ChatMessage message) {
         return ChatMessageDTO.builder()
                 .id(message.getId())
@@ -0,0 +1,118 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.dtos.ConversationSummaryDTO;
+import com.auca_hr.AUCA_HR_System.dtos.UserSearchResultDTO;
+import com.auca_hr.AUCA_HR_System.entities.ChatMessage;
+import com.auca_hr.AUCA_HR_System.entities.ConversationSummaryId;
+import com.auca_hr.AUCA_HR_System.repositories.ConversationSummaryRepository;
+import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the conversation_summary read model behind the chat inbox.
+ * Sends and reads update it in the caller's transaction with single-statement upserts,
+ * so the inbox is one indexed query however many messages the users have exchanged.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ConversationSummaryService {
+
+    private static final int PREVIEW_LENGTH = 200;
+    private static final int MAX_INBOX_SIZE = 200;
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Record a newly saved private message: it becomes the pair's last message and counts as unread for the recipient
+     */
+    public void recordMessage(ChatMessage message) {
+        Long senderId = message.getSender().getId();
+        Long recipientId = message.getRecipient().getId();
+        ConversationSummaryId pair = ConversationSummaryId.of(senderId, recipientId);
+
+        String content = message.getContent();
+        String preview = content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+
+        conversationSummaryRepository.recordMessage(
+                pair.getLowUserId(),
+                pair.getHighUserId(),
+                message.getId(),
+                preview,
+                senderId,
+                message.getCreatedAt(),
+                recipientId.equals(pair.getLowUserId()) ? 1 : 0,
+                recipientId.equals(pair.getHighUserId()) ? 1 : 0);
+    }
+
+    /**
+     * The reader has read everything the partner sent them
+     */
+    public void markRead(Long readerId, Long partnerId) {
+        ConversationSummaryId pair = ConversationSummaryId.of(readerId, partnerId);
+        conversationSummaryRepository.clearUnread(pair.getLowUserId(), pair.getHighUserId(), readerId);
+    }
+
+    /**
+     * Recompute one pair from chat_messages, e.g. after its last message was deleted
+     */
+    public void refresh(Long userId, Long otherUserId) {
+        ConversationSummaryId pair = ConversationSummaryId.of(userId, otherUserId);
+        conversationSummaryRepository.deletePair(pair.getLowUserId(), pair.getHighUserId());
+        conversationSummaryRepository.rebuildPair(pair.getLowUserId(), pair.getHighUserId());
+    }
+
+    /**
+     * The user's conversations, most recent first; avatars come from one extra query over the page's partners
+     */
+    @Transactional(readOnly = true)
+    public List<ConversationSummaryDTO> getInbox(Long userId, int limit) {
+        List<ConversationSummaryDTO> inbox =
+                conversationSummaryRepository.findInbox(userId, Math.max(1, Math.min(limit, MAX_INBOX_SIZE)));
+        if (inbox.isEmpty()) {
+            return inbox;
+        }
+
+        Map<Long, String> avatars = userRepository.findCardsByIdIn(
+                        inbox.stream().map(ConversationSummaryDTO::getPartnerId).toList()).stream()
+                .filter(card -> card.getPhoto() != null)
+                .collect(Collectors.toMap(UserSearchResultDTO::getId, UserSearchResultDTO::getPhoto));
+        inbox.forEach(conversation -> conversation.setPartnerAvatar(avatars.get(conversation.getPartnerId())));
+        return inbox;
+    }
+
+    /**
+     * Partners of the user's most recent conversations, most recent first, without loading avatars
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getInboxPartnerIds(Long userId, int limit) {
+        return conversationSummaryRepository.findInbox(userId, Math.max(1, Math.min(limit, MAX_INBOX_SIZE))).stream()
+                .map(ConversationSummaryDTO::getPartnerId)
+                .toList();
+    }
+
+    /**
+     * Backfill the read model from chat_messages the first time the application starts with it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (conversationSummaryRepository.count() > 0) {
+            return;
+        }
+        int rows = conversationSummaryRepository.rebuildAll();
+        if (rows > 0) {
+            log.info("Conversation summaries backfilled: {} conversations", rows);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.auca_hr.AUCA_HR_System.services;
 
-import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -9,16 +8,16 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(UserLookupService userLookupService) {
+        this.userLookupService = userLookupService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username)
             throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        return userLookupService.findByEmail(username)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found with username: " + username));
     }
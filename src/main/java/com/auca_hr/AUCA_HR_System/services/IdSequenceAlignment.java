@@ -0,0 +1,67 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences past ids that were assigned before the tables switched from IDENTITY.
+ * Hibernate's pooled optimizer hands out (value - allocationSize, value], except that the very first
+ * nextval of a fresh sequence (still at its start value, is_called false) is used as an id itself.
+ * So the sequence is only safe once it has been called and its last value is at least the table's max id.
+ *
+ * Runs once every singleton exists, which is after Hibernate has created the sequences but before the
+ * web server and schedulers start, so no request can draw an id from a misaligned sequence.
+ */
+@Component
+@Slf4j
+public class IdSequenceAlignment implements SmartInitializingSingleton {
+
+    // Table -> sequence; must match the @SequenceGenerator of each entity
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("users_auca", "users_auca_seq");
+        SEQUENCES.put("education", "education_seq");
+        SEQUENCES.put("work_experience", "work_experience_seq");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAlignment(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        align();
+    }
+
+    private void align() {
+        SEQUENCES.forEach((table, sequence) -> {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                List<Map<String, Object>> state = jdbcTemplate.queryForList("SELECT last_value, is_called FROM " + sequence);
+                if (maxId == null || maxId == 0 || state.isEmpty()) {
+                    return;
+                }
+                long lastValue = ((Number) state.get(0).get("last_value")).longValue();
+                boolean called = Boolean.TRUE.equals(state.get(0).get("is_called"));
+                if (!called || lastValue < maxId) {
+                    // Never moves the sequence backwards, in case another node has already allocated from it
+                    jdbcTemplate.queryForObject("SELECT setval(?::regclass, GREATEST(?, last_value), true) FROM " + sequence,
+                            Long.class, sequence, maxId);
+                    log.info("Moved {} past existing {} ids (max id {})", sequence, table, maxId);
+                }
+            } catch (DataAccessException e) {
+                log.error("Could not align {} with {}: {}", sequence, table, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,221 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
+import com.auca_hr.AUCA_HR_System.enums.ContractType;
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+import com.auca_hr.AUCA_HR_System.enums.LeaveType;
+import com.auca_hr.AUCA_HR_System.enums.NotificationType;
+import com.auca_hr.AUCA_HR_System.enums.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.auca_hr.AUCA_HR_System.services.ReportSchema.ColumnType.BOOLEAN;
+import static com.auca_hr.AUCA_HR_System.services.ReportSchema.ColumnType.DATE;
+import static com.auca_hr.AUCA_HR_System.services.ReportSchema.ColumnType.DATETIME;
+import static com.auca_hr.AUCA_HR_System.services.ReportSchema.ColumnType.ENUM;
+import static com.auca_hr.AUCA_HR_System.services.ReportSchema.ColumnType.LONG;
+import static com.auca_hr.AUCA_HR_System.services.ReportSchema.ColumnType.STRING;
+
+/**
+ * Report rows for users, leave_requests and notifications, read straight from the database.
+ * Each report is one scalar HQL query run on a stateless session and read through a forward-only
+ * cursor with a fixed fetch size, so nothing is cached and only one fetch window of rows is in memory.
+ * Rows are copied into a reused {@link RowBatch} of the same size and handed on a batch at a time.
+ */
+@Service
+@Slf4j
+public class JpaReportDataProvider implements ReportDataProvider {
+
+    private record Filter(String path, Function<Object, Object> converter) {
+    }
+
+    /**
+     * @param startPath compared with the request's startDate ({@code >=})
+     * @param endPath   compared with the request's endDate ({@code <=})
+     * @param dateOnly  the paths are LocalDate columns, so the bounds are bound as dates
+     */
+    private record ReportDefinition(ReportSchema schema, String query, String startPath, String endPath, boolean dateOnly,
+                                    Map<String, Filter> filters, String orderBy) {
+    }
+
+    private static final Map<String, ReportDefinition> REPORTS = new LinkedHashMap<>();
+
+    static {
+        REPORTS.put("users", new ReportDefinition(
+                ReportSchema.builder()
+                        .column("User ID", LONG)
+                        .column("Name", STRING)
+                        .column("Email", STRING)
+                        .column("Phone", STRING)
+                        .column("Role", ENUM)
+                        .column("Contract Type", ENUM)
+                        .column("Position", STRING)
+                        .column("Registration Date", DATETIME)
+                        .column("Status", STRING)
+                        .build(),
+                "SELECT u.id, u.fullNames, u.email, u.phoneNumber, u.role, u.contractType, u.workingPosition, u.createdAt, " +
+                        "CASE WHEN u.active = true THEN 'Active' ELSE 'Inactive' END FROM User u",
+                "u.createdAt", "u.createdAt", false,
+                Map.of("role", new Filter("u.role", value -> UserRole.valueOf(value.toString().toUpperCase())),
+                        "contractType", new Filter("u.contractType", value -> ContractType.valueOf(value.toString().toUpperCase())),
+                        "active", new Filter("u.active", JpaReportDataProvider::toBoolean)),
+                "u.id"));
+
+        // A leave request is in range when any of its days are
+        REPORTS.put("leave_requests", new ReportDefinition(
+                ReportSchema.builder()
+                        .column("Request ID", LONG)
+                        .column("Lecturer", STRING)
+                        .column("Email", STRING)
+                        .column("Leave Type", ENUM)
+                        .column("Start Date", DATE)
+                        .column("End Date", DATE)
+                        .column("Status", ENUM)
+                        .column("Approved By", STRING)
+                        .column("Approved At", DATETIME)
+                        .column("Submitted At", DATETIME)
+                        .build(),
+                "SELECT lr.id, l.fullNames, l.email, lr.leaveType, lr.startDate, lr.endDate, lr.status, a.fullNames, lr.approvedAt, lr.createdAt " +
+                        "FROM LeaveRequest lr JOIN lr.lecturer l LEFT JOIN lr.approvedBy a",
+                "lr.endDate", "lr.startDate", true,
+                Map.of("status", new Filter("lr.status", value -> LeaveStatus.valueOf(value.toString().toUpperCase())),
+                        "leaveType", new Filter("lr.leaveType", value -> LeaveType.valueOf(value.toString().toUpperCase())),
+                        "lecturerId", new Filter("l.id", JpaReportDataProvider::toLong)),
+                "lr.startDate, lr.id"));
+
+        REPORTS.put("notifications", new ReportDefinition(
+                ReportSchema.builder()
+                        .column("Notification ID", LONG)
+                        .column("Recipient", STRING)
+                        .column("Title", STRING)
+                        .column("Type", ENUM)
+                        .column("Read", BOOLEAN)
+                        .column("Created At", DATETIME)
+                        .column("Read At", DATETIME)
+                        .build(),
+                "SELECT n.id, r.fullNames, n.title, n.type, n.isRead, n.createdAt, n.readAt " +
+                        "FROM Notification n JOIN n.recipient r",
+                "n.createdAt", "n.createdAt", false,
+                Map.of("type", new Filter("n.type", value -> NotificationType.valueOf(value.toString().toUpperCase())),
+                        "recipientId", new Filter("r.id", JpaReportDataProvider::toLong),
+                        "isRead", new Filter("n.isRead", JpaReportDataProvider::toBoolean)),
+                "n.createdAt, n.id"));
+    }
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    public JpaReportDataProvider(EntityManagerFactory entityManagerFactory,
+                                 @Value("${app.reports.fetch-size:500}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void streamBatches(ReportRequest request, BatchSink sink) throws IOException {
+        ReportDefinition report = definition(request.getReportType());
+        Map<String, Object> parameters = request.getParameters() != null ? request.getParameters() : Map.of();
+
+        StringBuilder hql = new StringBuilder(report.query()).append(" WHERE 1 = 1");
+        Map<String, Object> filterValues = new HashMap<>();
+        if (request.getStartDate() != null) {
+            hql.append(" AND ").append(report.startPath()).append(" >= :startDate");
+            filterValues.put("startDate", report.dateOnly() ? request.getStartDate().toLocalDate() : request.getStartDate());
+        }
+        if (request.getEndDate() != null) {
+            hql.append(" AND ").append(report.endPath()).append(" <= :endDate");
+            filterValues.put("endDate", report.dateOnly() ? request.getEndDate().toLocalDate() : request.getEndDate());
+        }
+        report.filters().forEach((name, filter) -> {
+            Object value = parameters.get(name);
+            if (value != null) {
+                hql.append(" AND ").append(filter.path()).append(" = :").append(name);
+                filterValues.put(name, filter.converter().apply(value));
+            }
+        });
+        hql.append(" ORDER BY ").append(report.orderBy());
+
+        ReportSchema schema = report.schema();
+        int columns = schema.size();
+        // One batch for the whole export; the sink consumes it before it is refilled
+        RowBatch batch = new RowBatch(schema, fetchSize);
+        long count = 0;
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // Postgres only honours the fetch size inside a transaction
+            Transaction transaction = session.beginTransaction();
+            try {
+                SelectionQuery<Object[]> query = session.createSelectionQuery(hql.toString(), Object[].class)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true);
+                filterValues.forEach(query::setParameter);
+
+                try (ScrollableResults<Object[]> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        Object[] values = results.get();
+                        int row = batch.addRow();
+                        for (int c = 0; c < columns; c++) {
+                            batch.set(row, c, values[c]);
+                        }
+                        if (batch.isFull()) {
+                            sink.accept(batch);
+                            count += batch.size();
+                            batch.clear();
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    sink.accept(batch);
+                    count += batch.size();
+                }
+                transaction.commit();
+            } catch (IOException | RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+
+        log.debug("Report {} streamed {} rows", request.getReportType(), count);
+    }
+
+    @Override
+    public ReportSchema getSchema(String reportType) {
+        return definition(reportType).schema();
+    }
+
+    @Override
+    public Set<String> getReportTypes() {
+        return REPORTS.keySet();
+    }
+
+    private ReportDefinition definition(String reportType) {
+        ReportDefinition report = reportType != null ? REPORTS.get(reportType.toLowerCase()) : null;
+        if (report == null) {
+            throw new IllegalArgumentException("Unsupported report type: " + reportType);
+        }
+        return report;
+    }
+
+    private static Object toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+
+    private static Object toBoolean(Object value) {
+        return value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString());
+    }
+}
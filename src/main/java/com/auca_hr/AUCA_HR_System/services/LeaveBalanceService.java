@@ -0,0 +1,196 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.entities.LeaveBalance;
+import com.auca_hr.AUCA_HR_System.entities.LeaveBalanceId;
+import com.auca_hr.AUCA_HR_System.entities.LeaveRequest;
+import com.auca_hr.AUCA_HR_System.enums.LeaveType;
+import com.auca_hr.AUCA_HR_System.repositories.LeaveBalanceRepository;
+import com.auca_hr.AUCA_HR_System.repositories.LeaveRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the leave_balances ledger: approved leave days per user, year and leave type.
+ * Approvals and cancellations adjust it in the caller's transaction; the nightly job reconciles it
+ * against leave_requests and repairs any drift.
+ *
+ * A per-year advisory lock keeps the two apart: approvals take it shared, a rebuild takes it
+ * exclusively and only then reads the approved requests, so it never sees a ledger that already
+ * counts an approval whose request it cannot see yet.
+ */
+@Service
+@Slf4j
+@Transactional
+public class LeaveBalanceService {
+
+    // Namespace for pg_advisory_xact_lock(int, int); the second key is the leave year
+    private static final int ADVISORY_LOCK_NAMESPACE = 0x4C564241; // "LVBA"
+
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LeaveBalanceService(LeaveBalanceRepository leaveBalanceRepository,
+                               LeaveRequestRepository leaveRequestRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.leaveBalanceRepository = leaveBalanceRepository;
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Add the days of a newly approved leave to the ledger, split by calendar year
+     */
+    public void recordApproved(LeaveRequest leaveRequest) {
+        apply(leaveRequest, 1);
+    }
+
+    /**
+     * Remove the days of a previously approved leave from the ledger
+     */
+    public void recordReleased(LeaveRequest leaveRequest) {
+        apply(leaveRequest, -1);
+    }
+
+    @Transactional(readOnly = true)
+    public int getUsedDays(Long userId, int year) {
+        return (int) leaveBalanceRepository.sumUsedDays(userId, year);
+    }
+
+    /**
+     * Used days for every leave type in one query; types without a ledger row map to 0
+     */
+    @Transactional(readOnly = true)
+    public Map<LeaveType, Integer> getUsedDaysByType(Long userId, int year) {
+        Map<LeaveType, Integer> usedByType = new EnumMap<>(LeaveType.class);
+        for (LeaveType type : LeaveType.values()) {
+            usedByType.put(type, 0);
+        }
+        for (LeaveBalance balance : leaveBalanceRepository.findByUserAndYear(userId, year)) {
+            usedByType.put(balance.getId().getLeaveType(), balance.getUsedDays());
+        }
+        return usedByType;
+    }
+
+    /**
+     * Recompute one year of the ledger from approved leave requests and fix rows that differ.
+     * Returns the number of rows that were corrected.
+     */
+    public int rebuildYear(int year) {
+        LocalDate yearStart = LocalDate.of(year, 1, 1);
+        LocalDate yearEnd = LocalDate.of(year, 12, 31);
+
+        // Waits for approvals in flight to commit and holds off new ones until this transaction ends;
+        // everything below is read after it, so the requests and the ledger describe the same moment
+        lockYear(year, true);
+        List<LeaveBalance> balances = leaveBalanceRepository.findByYearForUpdate(year);
+
+        Map<LeaveBalanceId, Integer> expected = new HashMap<>();
+        for (Object[] span : leaveRequestRepository.findApprovedLeaveSpans(yearStart, yearEnd)) {
+            Long userId = (Long) span[0];
+            LeaveType leaveType = (LeaveType) span[1];
+            int days = daysPerYear((LocalDate) span[2], (LocalDate) span[3]).getOrDefault(year, 0);
+            expected.merge(new LeaveBalanceId(userId, year, leaveType), days, Integer::sum);
+        }
+
+        int corrected = 0;
+        for (LeaveBalance balance : balances) {
+            int expectedDays = expected.getOrDefault(balance.getId(), 0);
+            expected.remove(balance.getId());
+            if (balance.getUsedDays() != expectedDays) {
+                log.warn("Leave balance drift for {}: ledger={}, actual={}", balance.getId(), balance.getUsedDays(), expectedDays);
+                balance.setUsedDays(expectedDays);
+                corrected++;
+            }
+        }
+
+        for (Map.Entry<LeaveBalanceId, Integer> missing : expected.entrySet()) {
+            if (missing.getValue() == 0) {
+                continue;
+            }
+            log.warn("Leave balance missing for {}: actual={}", missing.getKey(), missing.getValue());
+            LeaveBalanceId id = missing.getKey();
+            leaveBalanceRepository.addUsedDays(id.getUserId(), year, id.getLeaveType().name(), missing.getValue());
+            corrected++;
+        }
+
+        log.info("Leave balance ledger for {} verified, {} row(s) corrected", year, corrected);
+        return corrected;
+    }
+
+    /**
+     * Nightly reconciliation of the current and next year (leave can be approved ahead of time).
+     * Earlier years with approved leave but no ledger rows yet are backfilled once, so a freshly
+     * created ledger also answers for history. Runs at startup too, before the ledger is read.
+     * Each year is rebuilt in its own transaction, so no more than one year is ever locked exclusively.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.leave-balances.verify-cron:0 30 2 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void verifyLedger() {
+        int currentYear = LocalDate.now().getYear();
+        LocalDate earliest = leaveRequestRepository.findEarliestApprovedStartDate();
+        if (earliest != null && earliest.getYear() < currentYear) {
+            Set<Integer> ledgerYears = leaveBalanceRepository.findLedgerYears();
+            for (int year = earliest.getYear(); year < currentYear; year++) {
+                if (!ledgerYears.contains(year)) {
+                    int pastYear = year;
+                    transactionTemplate.executeWithoutResult(status -> rebuildYear(pastYear));
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> rebuildYear(currentYear));
+        transactionTemplate.executeWithoutResult(status -> rebuildYear(currentYear + 1));
+    }
+
+    private void apply(LeaveRequest leaveRequest, int sign) {
+        Long userId = leaveRequest.getLecturer().getId();
+        String leaveType = leaveRequest.getLeaveType().name();
+
+        daysPerYear(leaveRequest.getStartDate(), leaveRequest.getEndDate())
+                .forEach((year, days) -> {
+                    lockYear(year, false);
+                    leaveBalanceRepository.addUsedDays(userId, year, leaveType, sign * days);
+                });
+    }
+
+    private void lockYear(int year, boolean exclusive) {
+        String function = exclusive ? "pg_advisory_xact_lock" : "pg_advisory_xact_lock_shared";
+        jdbcTemplate.query("SELECT " + function + "(?, ?)", rs -> null, ADVISORY_LOCK_NAMESPACE, year);
+    }
+
+    /**
+     * Split an inclusive date range into leave days per calendar year
+     */
+    static Map<Integer, Integer> daysPerYear(LocalDate startDate, LocalDate endDate) {
+        Map<Integer, Integer> result = new LinkedHashMap<>();
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            LocalDate yearStart = LocalDate.of(year, 1, 1);
+            LocalDate yearEnd = LocalDate.of(year, 12, 31);
+            LocalDate effectiveStart = startDate.isBefore(yearStart) ? yearStart : startDate;
+            LocalDate effectiveEnd = endDate.isAfter(yearEnd) ? yearEnd : endDate;
+            result.put(year, (int) ChronoUnit.DAYS.between(effectiveStart, effectiveEnd) + 1);
+        }
+        return result;
+    }
+}
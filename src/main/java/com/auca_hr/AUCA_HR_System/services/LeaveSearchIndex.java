@@ -0,0 +1,45 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.repositories.LeaveRequestRepositoryCustomImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Full-text search column for leave requests. search_vector is a stored generated column, so Postgres
+ * keeps it current on every insert and update; the entity never maps it. Description terms weigh
+ * more than HR comment terms in the ranking. Lecturer names are matched through their own index on users_auca.
+ */
+@Component
+@Slf4j
+public class LeaveSearchIndex {
+
+    private static final String SEARCH_VECTOR =
+            "setweight(to_tsvector('" + LeaveRequestRepositoryCustomImpl.TEXT_SEARCH_CONFIG + "', coalesce(description, '')), 'A') || " +
+            "setweight(to_tsvector('" + LeaveRequestRepositoryCustomImpl.TEXT_SEARCH_CONFIG + "', coalesce(hr_comments, '')), 'B')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LeaveSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs at startup, after Hibernate has created leave_requests. Adding the column rewrites the table once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSearchColumn() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE leave_requests ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (" + SEARCH_VECTOR + ") STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_leave_requests_search ON leave_requests USING gin (search_vector)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_users_auca_name_search ON users_auca " +
+                    "USING gin ((" + LeaveRequestRepositoryCustomImpl.NAME_VECTOR + "))");
+        } catch (DataAccessException e) {
+            log.error("Could not create the leave request search column: {}", e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.auca_hr.AUCA_HR_System.services;
 
+import com.auca_hr.AUCA_HR_System.dtos.BulkLeaveDecisionResult;
 import com.auca_hr.AUCA_HR_System.dtos.LeaveBalanceDTO;
 import com.auca_hr.AUCA_HR_System.dtos.LeaveRequestDTO;
+import com.auca_hr.AUCA_HR_System.dtos.LeaveSearchCriteria;
 import com.auca_hr.AUCA_HR_System.entities.LeaveRequest;
 import com.auca_hr.AUCA_HR_System.entities.User;
 import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
@@ -17,10 +19,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Year;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,47 +36,72 @@ public class LeaveService {
 
     private final LeaveRequestRepository leaveRequestRepository;
     private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
     private final NotificationService notificationService;
+    private final LeaveBalanceService leaveBalanceService;
+    private final LeaveSubmissionLock leaveSubmissionLock;
 
     // Maximum annual leave days allowed
     private static final int MAX_ANNUAL_LEAVE_DAYS = 30;
 
+    // Upper bound on request IDs per bulk approve/reject call
+    private static final int MAX_BULK_DECISIONS = 1000;
+
+    // Upper bound on leave search results per page
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
 
     // Get leave balance for a specific user
     public int getRemainingLeaveBalance(String userId, int year) {
-        List<LeaveRequest> approvedLeaves = leaveRequestRepository.findByUserEmailAndYearAndStatus(userId, year, LeaveStatus.APPROVED);
+        User lecturer = userLookupService.findReferenceByEmail(userId)
+                .orElseThrow(() -> new RuntimeException("Lecturer not found"));
 
-        int usedDays = approvedLeaves.stream()
-                .mapToInt(leave -> (int) ChronoUnit.DAYS.between(leave.getStartDate(), leave.getEndDate()) + 1)
-                .sum();
+        return MAX_ANNUAL_LEAVE_DAYS - getUsedAnnualLeaveDays(lecturer, year);
+    }
 
-        return MAX_ANNUAL_LEAVE_DAYS - usedDays;
+    /**
+     * Leave balance for every leave type in a year. The annual allowance is shared by all types,
+     * so each entry reports its own used days against the same remaining total.
+     */
+    public List<LeaveBalanceDTO> getLeaveBalances(String lecturerUsername, int year) {
+        User lecturer = userLookupService.findReferenceByEmail(lecturerUsername)
+                .orElseThrow(() -> new RuntimeException("Lecturer not found"));
+
+        Map<LeaveType, Integer> usedByType = leaveBalanceService.getUsedDaysByType(lecturer.getId(), year);
+        int remaining = MAX_ANNUAL_LEAVE_DAYS - usedByType.values().stream().mapToInt(Integer::intValue).sum();
+
+        return usedByType.entrySet().stream()
+                .map(entry -> new LeaveBalanceDTO(entry.getKey(), MAX_ANNUAL_LEAVE_DAYS, entry.getValue(), remaining))
+                .collect(Collectors.toList());
     }
 
     public LeaveRequestDTO submitLeaveRequest(LeaveRequestDTO leaveRequestDTO, String lecturerUsername) {
         log.info("Submitting leave request for lecturer: {}", lecturerUsername);
 
-        User lecturer = userRepository.findByEmail(lecturerUsername)
+        User lecturer = userLookupService.findReferenceByEmail(lecturerUsername)
                 .orElseThrow(() -> new RuntimeException("Lecturer not found"));
 
         // Validate leave dates
         validateLeaveDates(leaveRequestDTO.getStartDate(), leaveRequestDTO.getEndDate());
 
-        // Check for overlapping leaves
-        checkForOverlappingLeaves(lecturer, leaveRequestDTO.getStartDate(), leaveRequestDTO.getEndDate());
+        // Checks and insert run under the lecturer's lock so concurrent submissions cannot both pass
+        LeaveRequest savedRequest = leaveSubmissionLock.withLecturerLock(lecturer.getId(), () -> {
+            // Check for overlapping leaves
+            checkForOverlappingLeaves(lecturer, leaveRequestDTO.getStartDate(), leaveRequestDTO.getEndDate());
 
-        // Check annual leave limit
-        checkAnnualLeaveLimit(lecturer, leaveRequestDTO.getStartDate(), leaveRequestDTO.getEndDate());
+            // Check annual leave limit
+            checkAnnualLeaveLimit(lecturer, leaveRequestDTO.getStartDate(), leaveRequestDTO.getEndDate());
 
-        LeaveRequest leaveRequest = new LeaveRequest();
-        leaveRequest.setLecturer(lecturer);
-        leaveRequest.setLeaveType(leaveRequestDTO.getLeaveType());
-        leaveRequest.setStartDate(leaveRequestDTO.getStartDate());
-        leaveRequest.setEndDate(leaveRequestDTO.getEndDate());
-        leaveRequest.setDescription(leaveRequestDTO.getDescription());
-        leaveRequest.setStatus(LeaveStatus.PENDING);
+            LeaveRequest leaveRequest = new LeaveRequest();
+            leaveRequest.setLecturer(lecturer);
+            leaveRequest.setLeaveType(leaveRequestDTO.getLeaveType());
+            leaveRequest.setStartDate(leaveRequestDTO.getStartDate());
+            leaveRequest.setEndDate(leaveRequestDTO.getEndDate());
+            leaveRequest.setDescription(leaveRequestDTO.getDescription());
+            leaveRequest.setStatus(LeaveStatus.PENDING);
 
-        LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+            return leaveRequestRepository.save(leaveRequest);
+        });
 
         // Send notification to HR
         notificationService.notifyHROfNewLeaveRequest(savedRequest);
@@ -82,7 +112,7 @@ public class LeaveService {
     }
 
     public List<LeaveRequestDTO> getLeaveRequestsByLecturer(String lecturerUsername) {
-        User lecturer = userRepository.findByEmail(lecturerUsername)
+        User lecturer = userLookupService.findReferenceByEmail(lecturerUsername)
                 .orElseThrow(() -> new RuntimeException("Lecturer not found"));
 
         List<LeaveRequest> requests = leaveRequestRepository.findByLecturerOrderByCreatedAtDesc(lecturer);
@@ -102,22 +132,11 @@ public class LeaveService {
     public LeaveRequestDTO approveLeaveRequest(Long requestId, String hrUsername, String comments) {
         log.info("Approving leave request ID: {} by HR: {}", requestId, hrUsername);
 
-        User hrUser = userRepository.findByEmail(hrUsername)
+        User hrUser = userLookupService.findReferenceByEmail(hrUsername)
                 .orElseThrow(() -> new RuntimeException("HR user not found"));
 
-        LeaveRequest leaveRequest = leaveRequestRepository.findById(requestId)
-                .orElseThrow(() -> new RuntimeException("Leave request not found"));
-
-        if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
-            throw new RuntimeException("Leave request is not in pending status");
-        }
-
-        leaveRequest.setStatus(LeaveStatus.APPROVED);
-        leaveRequest.setApprovedBy(hrUser);
-        leaveRequest.setHrComments(comments);
-        leaveRequest.setApprovedAt(LocalDateTime.now());
-
-        LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+        LeaveRequest savedRequest = transitionFromPending(requestId, LeaveStatus.APPROVED, hrUser, comments);
+        leaveBalanceService.recordApproved(savedRequest);
 
         // Send notification to lecturer
         notificationService.notifyLecturerOfLeaveApproval(savedRequest);
@@ -130,22 +149,10 @@ public class LeaveService {
     public LeaveRequestDTO rejectLeaveRequest(Long requestId, String hrUsername, String comments) {
         log.info("Rejecting leave request ID: {} by HR: {}", requestId, hrUsername);
 
-        User hrUser = userRepository.findByEmail(hrUsername)
+        User hrUser = userLookupService.findReferenceByEmail(hrUsername)
                 .orElseThrow(() -> new RuntimeException("HR user not found"));
 
-        LeaveRequest leaveRequest = leaveRequestRepository.findById(requestId)
-                .orElseThrow(() -> new RuntimeException("Leave request not found"));
-
-        if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
-            throw new RuntimeException("Leave request is not in pending status");
-        }
-
-        leaveRequest.setStatus(LeaveStatus.REJECTED);
-        leaveRequest.setApprovedBy(hrUser);
-        leaveRequest.setHrComments(comments);
-        leaveRequest.setApprovedAt(LocalDateTime.now());
-
-        LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+        LeaveRequest savedRequest = transitionFromPending(requestId, LeaveStatus.REJECTED, hrUser, comments);
 
         // Send notification to lecturer
         notificationService.notifyLecturerOfLeaveRejection(savedRequest);
@@ -155,10 +162,66 @@ public class LeaveService {
         return convertToDTO(savedRequest);
     }
 
+    /**
+     * Approve or reject many pending requests at once. The transition is one set-based UPDATE,
+     * the lecturer notifications are batch-inserted and pushed in one pass, and every requested
+     * ID gets its own result, so one stale ID does not fail the whole batch.
+     */
+    public List<BulkLeaveDecisionResult> decideLeaveRequests(List<Long> requestIds, LeaveStatus decision,
+                                                             String hrUsername, String comments) {
+        if (decision != LeaveStatus.APPROVED && decision != LeaveStatus.REJECTED) {
+            throw new IllegalArgumentException("Bulk decision must be APPROVED or REJECTED");
+        }
+        if (requestIds == null || requestIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one leave request ID is required");
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(requestIds);
+        ids.remove(null);
+        if (ids.size() > MAX_BULK_DECISIONS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DECISIONS + " leave requests can be decided at once");
+        }
+        log.info("Bulk {} of {} leave requests by HR: {}", decision, ids.size(), hrUsername);
+
+        User hrUser = userLookupService.findReferenceByEmail(hrUsername)
+                .orElseThrow(() -> new RuntimeException("HR user not found"));
+
+        Set<Long> transitioned = leaveRequestRepository.transitionAllFromPending(
+                ids, decision, hrUser.getId(), comments, LocalDateTime.now());
+
+        Map<Long, LeaveRequest> requestsById = new HashMap<>();
+        for (LeaveRequest leaveRequest : leaveRequestRepository.findAllWithLecturerByIdIn(ids)) {
+            requestsById.put(leaveRequest.getId(), leaveRequest);
+        }
+
+        List<LeaveRequest> decided = new ArrayList<>(transitioned.size());
+        List<BulkLeaveDecisionResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            LeaveRequest leaveRequest = requestsById.get(id);
+            if (leaveRequest == null) {
+                results.add(new BulkLeaveDecisionResult(id, false, null, "Leave request not found"));
+            } else if (transitioned.contains(id)) {
+                decided.add(leaveRequest);
+                results.add(new BulkLeaveDecisionResult(id, true, leaveRequest.getStatus(), null));
+            } else {
+                results.add(new BulkLeaveDecisionResult(id, false, leaveRequest.getStatus(),
+                        "Leave request is not in pending status"));
+            }
+        }
+
+        if (decision == LeaveStatus.APPROVED) {
+            decided.forEach(leaveBalanceService::recordApproved);
+        }
+        notificationService.notifyLecturersOfDecisions(decided, hrUser);
+
+        log.info("Bulk {} completed: {} of {} leave requests updated", decision, decided.size(), ids.size());
+        return results;
+    }
+
     public LeaveRequestDTO cancelLeaveRequest(Long requestId, String lecturerUsername) {
         log.info("Cancelling leave request ID: {} by lecturer: {}", requestId, lecturerUsername);
 
-        User lecturer = userRepository.findByEmail(lecturerUsername)
+        User lecturer = userLookupService.findReferenceByEmail(lecturerUsername)
                 .orElseThrow(() -> new RuntimeException("Lecturer not found"));
 
         LeaveRequest leaveRequest = leaveRequestRepository.findById(requestId)
@@ -172,8 +235,20 @@ public class LeaveService {
             throw new RuntimeException("Leave request is already cancelled");
         }
 
-        leaveRequest.setStatus(LeaveStatus.CANCELLED);
-        LeaveRequest savedRequest = leaveRequestRepository.save(leaveRequest);
+        // Conditional on the status just read, so a concurrent approval cannot slip in unaccounted
+        LeaveStatus previousStatus = leaveRequest.getStatus();
+        int updated = leaveRequestRepository.cancelIfStatus(requestId, lecturer.getId(), previousStatus, LocalDateTime.now());
+        if (updated == 0) {
+            throw new RuntimeException("Leave request was modified concurrently, please retry");
+        }
+
+        LeaveRequest savedRequest = leaveRequestRepository.findWithUsersById(requestId)
+                .orElseThrow(() -> new RuntimeException("Leave request not found"));
+
+        // Only approved leave has been counted in the balance ledger
+        if (previousStatus == LeaveStatus.APPROVED) {
+            leaveBalanceService.recordReleased(savedRequest);
+        }
 
         // Send notification to HR
         notificationService.notifyHROfLeaveCancellation(savedRequest);
@@ -183,15 +258,38 @@ public class LeaveService {
         return convertToDTO(savedRequest);
     }
 
+    /**
+     * Move a PENDING request to the target status in one conditional UPDATE.
+     * Of several concurrent callers exactly one gets the updated request back; the rest get an exception.
+     */
+    private LeaveRequest transitionFromPending(Long requestId, LeaveStatus targetStatus, User hrUser, String comments) {
+        int updated = leaveRequestRepository.transitionStatus(
+                requestId, LeaveStatus.PENDING, targetStatus, hrUser, comments, LocalDateTime.now());
+
+        if (updated == 0) {
+            if (!leaveRequestRepository.existsById(requestId)) {
+                throw new RuntimeException("Leave request not found");
+            }
+            throw new RuntimeException("Leave request is not in pending status");
+        }
+
+        return leaveRequestRepository.findWithUsersById(requestId)
+                .orElseThrow(() -> new RuntimeException("Leave request not found"));
+    }
+
     public LeaveRequestDTO getLeaveRequestById(Long requestId) {
         LeaveRequest leaveRequest = leaveRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Leave request not found"));
         return convertToDTO(leaveRequest);
     }
 
-    public List<LeaveRequestDTO> searchLeaveRequests(String searchTerm) {
-        List<LeaveRequest> requests = leaveRequestRepository.searchLeaveRequests(searchTerm);
-        return requests.stream().map(this::convertToDTO).collect(Collectors.toList());
+    /**
+     * One page of matching leave requests, read as DTOs in a single query
+     */
+    @Transactional(readOnly = true)
+    public List<LeaveRequestDTO> searchLeaveRequests(LeaveSearchCriteria criteria, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        return leaveRequestRepository.search(criteria, Math.max(page, 0) * pageSize, pageSize);
     }
 
     public long getPendingRequestsCount() {
@@ -202,7 +300,7 @@ public class LeaveService {
      * Get remaining annual leave days for a lecturer
      */
     public int getRemainingAnnualLeaveDays(String lecturerUsername) {
-        User lecturer = userRepository.findByEmail(lecturerUsername)
+        User lecturer = userLookupService.findReferenceByEmail(lecturerUsername)
                 .orElseThrow(() -> new RuntimeException("Lecturer not found"));
 
         int usedDays = getUsedAnnualLeaveDays(lecturer, LocalDate.now().getYear());
@@ -213,15 +311,7 @@ public class LeaveService {
      * Get used annual leave days for a specific year
      */
     public int getUsedAnnualLeaveDays(User lecturer, int year) {
-        LocalDate yearStart = LocalDate.of(year, 1, 1);
-        LocalDate yearEnd = LocalDate.of(year, 12, 31);
-
-        List<LeaveRequest> approvedLeaves = leaveRequestRepository.findApprovedLeavesByLecturerAndDateRange(
-                lecturer, yearStart, yearEnd);
-
-        return approvedLeaves.stream()
-                .mapToInt(this::calculateLeaveDays)
-                .sum();
+        return leaveBalanceService.getUsedDays(lecturer.getId(), year);
     }
 
     private void validateLeaveDates(LocalDate startDate, LocalDate endDate) {
@@ -235,34 +325,30 @@ public class LeaveService {
     }
 
     private void checkForOverlappingLeaves(User lecturer, LocalDate startDate, LocalDate endDate) {
-        List<LeaveRequest> overlappingLeaves = leaveRequestRepository.findOverlappingApprovedLeaves(
+        List<LeaveRequest> overlappingLeaves = leaveRequestRepository.findOverlappingActiveLeaves(
                 lecturer, startDate, endDate);
 
         if (!overlappingLeaves.isEmpty()) {
-            throw new RuntimeException("You have overlapping approved leave requests for the selected dates");
+            throw new RuntimeException("You have overlapping pending or approved leave requests for the selected dates");
         }
     }
 
     /**
-     * Check if the requested leave would exceed the annual limit
+     * Check if the requested leave would exceed the annual limit.
+     * Pending requests count as reserved days, otherwise several pending requests could together overshoot it.
      */
     private void checkAnnualLeaveLimit(User lecturer, LocalDate startDate, LocalDate endDate) {
-        int requestedDays = calculateLeaveDays(startDate, endDate);
-
-        // Check for each year that the leave spans
-        int startYear = startDate.getYear();
-        int endYear = endDate.getYear();
-
-        for (int year = startYear; year <= endYear; year++) {
-            LocalDate yearStart = LocalDate.of(year, 1, 1);
-            LocalDate yearEnd = LocalDate.of(year, 12, 31);
-
-            // Calculate the portion of requested leave that falls in this year
-            LocalDate effectiveStart = startDate.isBefore(yearStart) ? yearStart : startDate;
-            LocalDate effectiveEnd = endDate.isAfter(yearEnd) ? yearEnd : endDate;
+        Map<Integer, Integer> pendingDaysByYear = new HashMap<>();
+        for (LeaveRequest pending : leaveRequestRepository.findByLecturerAndStatusOrderByCreatedAtDesc(lecturer, LeaveStatus.PENDING)) {
+            LeaveBalanceService.daysPerYear(pending.getStartDate(), pending.getEndDate())
+                    .forEach((year, days) -> pendingDaysByYear.merge(year, days, Integer::sum));
+        }
 
-            int daysInThisYear = calculateLeaveDays(effectiveStart, effectiveEnd);
-            int usedDaysInYear = getUsedAnnualLeaveDays(lecturer, year);
+        // Check for each year that the leave spans, using the portion of requested leave that falls in it
+        for (Map.Entry<Integer, Integer> yearDays : LeaveBalanceService.daysPerYear(startDate, endDate).entrySet()) {
+            int year = yearDays.getKey();
+            int daysInThisYear = yearDays.getValue();
+            int usedDaysInYear = getUsedAnnualLeaveDays(lecturer, year) + pendingDaysByYear.getOrDefault(year, 0);
 
             if (usedDaysInYear + daysInThisYear > MAX_ANNUAL_LEAVE_DAYS) {
                 int remainingDays = MAX_ANNUAL_LEAVE_DAYS - usedDaysInYear;
@@ -274,20 +360,6 @@ public class LeaveService {
         }
     }
 
-    /**
-     * Calculate number of leave days between two dates (inclusive)
-     */
-    private int calculateLeaveDays(LocalDate startDate, LocalDate endDate) {
-        return (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
-    }
-
-    /**
-     * Calculate leave days for a LeaveRequest object
-     */
-    private int calculateLeaveDays(LeaveRequest leaveRequest) {
-        return calculateLeaveDays(leaveRequest.getStartDate(), leaveRequest.getEndDate());
-    }
-
     private LeaveRequestDTO convertToDTO(LeaveRequest leaveRequest) {
         LeaveRequestDTO dto = new LeaveRequestDTO();
         dto.setId(leaveRequest.getId());
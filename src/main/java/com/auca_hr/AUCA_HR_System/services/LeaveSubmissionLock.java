@@ -0,0 +1,83 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes leave submissions per lecturer so the overlap and annual-limit checks and the insert
+ * behave as one step. Submissions from different lecturers only contend on a shared stripe by hash collision.
+ *
+ * In-process, a striped ReentrantLock keeps same-lecturer threads from tying up a connection each;
+ * across nodes, a Postgres transaction-scoped advisory lock does the same. Both are held until the
+ * surrounding transaction completes, so the next submission sees the committed row.
+ */
+@Component
+public class LeaveSubmissionLock {
+
+    // Namespace for pg_advisory_xact_lock(int, int), so these keys cannot clash with other advisory locks
+    private static final int ADVISORY_LOCK_NAMESPACE = 0x4C565251; // "LVRQ"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean advisoryLockEnabled;
+    private final ReentrantLock[] stripes;
+
+    @Autowired
+    public LeaveSubmissionLock(JdbcTemplate jdbcTemplate,
+                               @Value("${app.leave.submission-lock.stripes:256}") int stripeCount,
+                               @Value("${app.leave.submission-lock.advisory:true}") boolean advisoryLockEnabled) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.advisoryLockEnabled = advisoryLockEnabled && jdbcTemplate != null;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run the action while holding the lock for this lecturer. Inside a transaction the lock is
+     * released after commit or rollback; outside one it is released when the action returns.
+     */
+    public <T> T withLecturerLock(Long lecturerId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(lecturerId);
+        lock.lock();
+
+        boolean releaseOnCompletion = false;
+        try {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+                releaseOnCompletion = true;
+
+                if (advisoryLockEnabled) {
+                    jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null,
+                            ADVISORY_LOCK_NAMESPACE, Long.hashCode(lecturerId));
+                }
+            }
+            return action.get();
+        } finally {
+            if (!releaseOnCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock stripeFor(Long lecturerId) {
+        int hash = Long.hashCode(lecturerId);
+        hash ^= (hash >>> 16);
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+}
@@ -0,0 +1,358 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.config.ExecutorConfig;
+import com.auca_hr.AUCA_HR_System.dtos.NotificationDTO;
+import com.auca_hr.AUCA_HR_System.entities.Notification;
+import com.auca_hr.AUCA_HR_System.entities.NotificationOutbox;
+import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.NotificationAudience;
+import com.auca_hr.AUCA_HR_System.enums.OutboxStatus;
+import com.auca_hr.AUCA_HR_System.repositories.LeaveRequestRepository;
+import com.auca_hr.AUCA_HR_System.repositories.NotificationOutboxRepository;
+import com.auca_hr.AUCA_HR_System.repositories.NotificationRepository;
+import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers the notification outbox once the writing transaction has committed.
+ * Each batch of outbox rows becomes one JDBC batch of notifications, and the WebSocket pushes
+ * are sent from the bounded notification pool after that batch commits. Failed rows are retried
+ * with exponential backoff up to a maximum number of attempts, then marked FAILED.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String NOTIFICATION_QUEUE = "/queue/notifications";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final NotificationService notificationService;
+    private final UnreadCountService unreadCountService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+
+    // One drain loop per node at a time; wake-ups that arrive while it runs make it go round again
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder pushed = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                                  NotificationRepository notificationRepository,
+                                  UserRepository userRepository,
+                                  LeaveRequestRepository leaveRequestRepository,
+                                  NotificationService notificationService,
+                                  UnreadCountService unreadCountService,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier(ExecutorConfig.NOTIFICATION_EXECUTOR) Executor executor,
+                                  @Value("${app.notifications.outbox.batch-size:200}") int batchSize,
+                                  @Value("${app.notifications.outbox.max-attempts:5}") int maxAttempts,
+                                  @Value("${app.notifications.outbox.retry-backoff-ms:2000}") long retryBackoffMillis,
+                                  @Value("${app.notifications.outbox.retention-days:7}") long retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.notificationService = notificationService;
+        this.unreadCountService = unreadCountService;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * Published by NotificationService when it writes outbox rows
+     */
+    public static final class OutboxWritten {
+    }
+
+    /**
+     * Published for notifications that are already stored and only need pushing over WebSocket
+     */
+    public static final class PushRequested {
+        private final List<Notification> notifications;
+        private final List<NotificationDTO> payloads;
+
+        public PushRequested(List<Notification> notifications, List<NotificationDTO> payloads) {
+            this.notifications = notifications;
+            this.payloads = payloads;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxWritten(OutboxWritten event) {
+        requestDrain();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPushRequested(PushRequested event) {
+        List<PendingPush> pushes = new ArrayList<>(event.notifications.size());
+        for (int i = 0; i < event.notifications.size(); i++) {
+            pushes.add(new PendingPush(event.notifications.get(i).getRecipient().getUsername(), event.payloads.get(i)));
+        }
+        try {
+            executor.execute(() -> push(pushes));
+        } catch (RejectedExecutionException e) {
+            // The notifications are stored; clients see them on their next fetch
+            log.warn("Notification pool is full, dropping {} WebSocket pushes", pushes.size());
+        }
+    }
+
+    /**
+     * Safety net for wake-ups that were rejected or lost (e.g. a crash between commit and dispatch) and for retries
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        requestDrain();
+    }
+
+    @Scheduled(cron = "${app.notifications.outbox.cleanup-cron:0 0 3 * * *}")
+    public void purgeDelivered() {
+        Integer removed = transactionTemplate.execute(status ->
+                outboxRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention)));
+        log.info("Purged {} delivered notification outbox rows", removed);
+    }
+
+    public Map<String, Object> getStats() {
+        LocalDateTime oldestPending = outboxRepository.findOldestCreatedAt(OutboxStatus.PENDING);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxRepository.countByStatus(OutboxStatus.PENDING));
+        stats.put("failed", outboxRepository.countByStatus(OutboxStatus.FAILED));
+        stats.put("oldestPendingAgeMillis", oldestPending != null
+                ? Duration.between(oldestPending, LocalDateTime.now()).toMillis() : 0L);
+        stats.put("delivered", delivered.sum());
+        stats.put("retried", retried.sum());
+        stats.put("gaveUp", failed.sum());
+        stats.put("pushed", pushed.sum());
+        stats.put("lastLagMillis", lastLagMillis.get());
+        stats.put("maxLagMillis", maxLagMillis.get());
+        return stats;
+    }
+
+    private void requestDrain() {
+        wakeRequested.set(true);
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drainLoop);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            log.warn("Notification pool is full, outbox will be drained on the next poll");
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            while (wakeRequested.getAndSet(false)) {
+                while (dispatchBatch() == batchSize) {
+                    // keep going while full batches come back
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Notification outbox drain failed: {}", e.getMessage(), e);
+        } finally {
+            draining.set(false);
+        }
+
+        // A wake-up may have arrived after the loop checked the flag but before draining was cleared
+        if (wakeRequested.get()) {
+            requestDrain();
+        }
+    }
+
+    private int dispatchBatch() {
+        List<Long> claimedIds = new ArrayList<>();
+        List<LocalDateTime> createdAts = new ArrayList<>();
+        List<PendingPush> pushes = new ArrayList<>();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<NotificationOutbox> entries = outboxRepository.claimDue(LocalDateTime.now(), batchSize);
+                for (NotificationOutbox entry : entries) {
+                    claimedIds.add(entry.getId());
+                    createdAts.add(entry.getCreatedAt());
+                }
+                deliver(entries, pushes);
+            });
+            createdAts.forEach(this::recordDelivered);
+        } catch (RuntimeException e) {
+            log.warn("Notification outbox batch of {} failed, retrying entries one by one: {}", claimedIds.size(), e.getMessage());
+            // One bad entry must not hold back the rest of the batch
+            pushes.clear();
+            for (Long id : claimedIds) {
+                dispatchSingle(id, pushes);
+            }
+        }
+
+        push(pushes);
+        return claimedIds.size();
+    }
+
+    private void dispatchSingle(Long id, List<PendingPush> pushes) {
+        List<PendingPush> entryPushes = new ArrayList<>();
+        List<LocalDateTime> createdAt = new ArrayList<>(1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.claimById(id).ifPresent(entry -> {
+                createdAt.add(entry.getCreatedAt());
+                deliver(List.of(entry), entryPushes);
+            }));
+            createdAt.forEach(this::recordDelivered);
+            pushes.addAll(entryPushes);
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> recordFailure(id, e));
+        }
+    }
+
+    private void deliver(List<NotificationOutbox> entries, List<PendingPush> pushes) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        List<User> hrUsers = null;
+        List<Notification> notifications = new ArrayList<>();
+        for (NotificationOutbox entry : entries) {
+            List<User> recipients;
+            if (entry.getAudience() == NotificationAudience.HR) {
+                if (hrUsers == null) {
+                    hrUsers = userRepository.findAllActiveHRUsers();
+                }
+                recipients = hrUsers;
+            } else {
+                recipients = List.of(userRepository.getReferenceById(entry.getRecipientId()));
+            }
+
+            for (User recipient : recipients) {
+                Notification notification = new Notification();
+                notification.setRecipient(recipient);
+                notification.setSender(entry.getSenderId() != null ? userRepository.getReferenceById(entry.getSenderId()) : null);
+                notification.setLeaveRequest(entry.getLeaveRequestId() != null
+                        ? leaveRequestRepository.getReferenceById(entry.getLeaveRequestId()) : null);
+                notification.setTitle(entry.getTitle());
+                notification.setMessage(entry.getMessage());
+                notification.setType(entry.getType());
+                notification.setRead(false);
+                notification.setCreatedAt(entry.getCreatedAt());
+                notifications.add(notification);
+            }
+        }
+
+        notificationRepository.insertAll(notifications);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationOutbox entry : entries) {
+            entry.setStatus(OutboxStatus.DONE);
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setProcessedAt(now);
+            entry.setLastError(null);
+        }
+
+        // Payloads are built inside the transaction, where the lazy recipient and sender can still load
+        Map<Long, Long> newPerRecipient = new LinkedHashMap<>();
+        Map<Long, String> usernames = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            User recipient = notification.getRecipient();
+            pushes.add(new PendingPush(recipient.getUsername(), notificationService.convertToDTO(notification)));
+            newPerRecipient.merge(recipient.getId(), 1L, Long::sum);
+            usernames.putIfAbsent(recipient.getId(), recipient.getUsername());
+        }
+        newPerRecipient.forEach((recipientId, count) ->
+                unreadCountService.adjustAfterCommit(recipientId, usernames.get(recipientId), count));
+    }
+
+    private void recordFailure(Long id, RuntimeException error) {
+        outboxRepository.findById(id).ifPresent(entry -> {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError(truncate(error.getMessage()));
+
+            if (attempts >= maxAttempts) {
+                entry.setStatus(OutboxStatus.FAILED);
+                failed.increment();
+                log.error("Notification outbox entry {} failed after {} attempts: {}", id, attempts, error.getMessage());
+            } else {
+                entry.setNextAttemptAt(LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << (attempts - 1))));
+                retried.increment();
+                log.warn("Notification outbox entry {} failed (attempt {}), retrying later: {}", id, attempts, error.getMessage());
+            }
+        });
+    }
+
+    private void recordDelivered(LocalDateTime createdAt) {
+        delivered.increment();
+        if (createdAt != null) {
+            long lag = Duration.between(createdAt, LocalDateTime.now()).toMillis();
+            lastLagMillis.set(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+        }
+    }
+
+    private void push(List<PendingPush> pushes) {
+        for (PendingPush push : pushes) {
+            try {
+                messagingTemplate.convertAndSendToUser(push.username, NOTIFICATION_QUEUE, push.payload);
+                pushed.increment();
+            } catch (RuntimeException e) {
+                // The notification row is committed; a failed push only delays it until the client fetches
+                log.warn("WebSocket push to {} failed: {}", push.username, e.getMessage());
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= 1000) {
+            return message;
+        }
+        return message.substring(0, 1000);
+    }
+
+    private static final class PendingPush {
+        private final String username;
+        private final NotificationDTO payload;
+
+        private PendingPush(String username, NotificationDTO payload) {
+            this.username = username;
+            this.payload = payload;
+        }
+    }
+}
@@ -3,16 +3,21 @@ package com.auca_hr.AUCA_HR_System.services;
 import com.auca_hr.AUCA_HR_System.dtos.NotificationDTO;
 import com.auca_hr.AUCA_HR_System.entities.LeaveRequest;
 import com.auca_hr.AUCA_HR_System.entities.Notification;
+import com.auca_hr.AUCA_HR_System.entities.NotificationOutbox;
 import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+import com.auca_hr.AUCA_HR_System.enums.NotificationAudience;
 import com.auca_hr.AUCA_HR_System.enums.NotificationType;
+import com.auca_hr.AUCA_HR_System.enums.OutboxStatus;
+import com.auca_hr.AUCA_HR_System.repositories.NotificationOutboxRepository;
 import com.auca_hr.AUCA_HR_System.repositories.NotificationRepository;
-import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,13 +28,13 @@ import java.util.stream.Collectors;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final UserLookupService userLookupService;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadCountService unreadCountService;
 
     public void notifyHROfNewLeaveRequest(LeaveRequest leaveRequest) {
-        log.info("Sending notification to HR for new leave request ID: {}", leaveRequest.getId());
-
-        List<User> hrUsers = userRepository.findAllActiveHRUsers();
+        log.info("Queueing notification to HR for new leave request ID: {}", leaveRequest.getId());
 
         String title = "New Leave Request Submitted";
         // Fixed: Added the missing lecturer's full name argument
@@ -40,102 +45,70 @@ public class NotificationService {
                 leaveRequest.getEndDate(),
                 leaveRequest.getDescription());
 
-        for (User hrUser : hrUsers) {
-            Notification notification = createNotification(
-                    hrUser,
-                    leaveRequest.getLecturer(),
-                    leaveRequest,
-                    title,
-                    message,
-                    NotificationType.LEAVE_REQUEST_SUBMITTED
-            );
-
-            Notification savedNotification = notificationRepository.save(notification);
-
-            // Send real-time notification via WebSocket
-            NotificationDTO notificationDTO = convertToDTO(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    hrUser.getUsername(),
-                    "/queue/notifications",
-                    notificationDTO
-            );
-        }
-
-        log.info("Notifications sent to {} HR users", hrUsers.size());
+        enqueue(NotificationAudience.HR, null, leaveRequest.getLecturer(), leaveRequest,
+                title, message, NotificationType.LEAVE_REQUEST_SUBMITTED);
     }
 
     public void notifyLecturerOfLeaveApproval(LeaveRequest leaveRequest) {
-        log.info("Sending approval notification to lecturer for leave request ID: {}", leaveRequest.getId());
+        log.info("Queueing approval notification to lecturer for leave request ID: {}", leaveRequest.getId());
 
         String title = "Leave Request Approved";
-        // Fixed: Corrected the format string structure
-        String message = String.format("Your %s request from %s to %s has been approved by %s. %s",
-                leaveRequest.getLeaveType().toString().replace("_", " ").toLowerCase(),
-                leaveRequest.getStartDate(),
-                leaveRequest.getEndDate(),
-                leaveRequest.getApprovedBy().getFullNames(),
-                leaveRequest.getHrComments() != null ? "Comments: " + leaveRequest.getHrComments() : "");
-
-        Notification notification = createNotification(
-                leaveRequest.getLecturer(),
-                leaveRequest.getApprovedBy(),
-                leaveRequest,
-                title,
-                message,
-                NotificationType.LEAVE_REQUEST_APPROVED
-        );
-
-        Notification savedNotification = notificationRepository.save(notification);
+        String message = approvalMessage(leaveRequest, leaveRequest.getApprovedBy().getFullNames());
 
-        // Send real-time notification via WebSocket
-        NotificationDTO notificationDTO = convertToDTO(savedNotification);
-        messagingTemplate.convertAndSendToUser(
-                leaveRequest.getLecturer().getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
-
-        log.info("Approval notification sent to lecturer: {}", leaveRequest.getLecturer().getUsername());
+        enqueue(NotificationAudience.USER, leaveRequest.getLecturer(), leaveRequest.getApprovedBy(), leaveRequest,
+                title, message, NotificationType.LEAVE_REQUEST_APPROVED);
     }
 
     public void notifyLecturerOfLeaveRejection(LeaveRequest leaveRequest) {
-        log.info("Sending rejection notification to lecturer for leave request ID: {}", leaveRequest.getId());
+        log.info("Queueing rejection notification to lecturer for leave request ID: {}", leaveRequest.getId());
 
         String title = "Leave Request Rejected";
-        // Fixed: Corrected the format string structure
-        String message = String.format("Your %s request from %s to %s has been rejected by %s. %s",
-                leaveRequest.getLeaveType().toString().replace("_", " ").toLowerCase(),
-                leaveRequest.getStartDate(),
-                leaveRequest.getEndDate(),
-                leaveRequest.getApprovedBy().getFullNames(),
-                leaveRequest.getHrComments() != null ? "Reason: " + leaveRequest.getHrComments() : "");
+        String message = rejectionMessage(leaveRequest, leaveRequest.getApprovedBy().getFullNames());
 
-        Notification notification = createNotification(
-                leaveRequest.getLecturer(),
-                leaveRequest.getApprovedBy(),
-                leaveRequest,
-                title,
-                message,
-                NotificationType.LEAVE_REQUEST_REJECTED
-        );
+        enqueue(NotificationAudience.USER, leaveRequest.getLecturer(), leaveRequest.getApprovedBy(), leaveRequest,
+                title, message, NotificationType.LEAVE_REQUEST_REJECTED);
+    }
 
-        Notification savedNotification = notificationRepository.save(notification);
+    /**
+     * Notify the lecturers of many approvals/rejections by one HR user: the notifications are inserted
+     * with a single JDBC batch and pushed over WebSocket in one pass by NotificationDispatcher after commit.
+     * Each leave request must have its lecturer loaded and its status and comments already set.
+     */
+    public void notifyLecturersOfDecisions(List<LeaveRequest> leaveRequests, User approver) {
+        if (leaveRequests.isEmpty()) {
+            return;
+        }
 
-        // Send real-time notification via WebSocket
-        NotificationDTO notificationDTO = convertToDTO(savedNotification);
-        messagingTemplate.convertAndSendToUser(
-                leaveRequest.getLecturer().getUsername(),
-                "/queue/notifications",
-                notificationDTO
-        );
+        String approverName = approver.getFullNames();
+        List<Notification> notifications = new ArrayList<>(leaveRequests.size());
+        for (LeaveRequest leaveRequest : leaveRequests) {
+            boolean approved = leaveRequest.getStatus() == LeaveStatus.APPROVED;
+            notifications.add(createNotification(
+                    leaveRequest.getLecturer(),
+                    approver,
+                    leaveRequest,
+                    approved ? "Leave Request Approved" : "Leave Request Rejected",
+                    approved ? approvalMessage(leaveRequest, approverName) : rejectionMessage(leaveRequest, approverName),
+                    approved ? NotificationType.LEAVE_REQUEST_APPROVED : NotificationType.LEAVE_REQUEST_REJECTED
+            ));
+        }
 
-        log.info("Rejection notification sent to lecturer: {}", leaveRequest.getLecturer().getUsername());
+        notificationRepository.insertAll(notifications);
+        for (Notification notification : notifications) {
+            unreadCountService.adjustAfterCommit(notification.getRecipient().getId(), notification.getRecipient().getUsername(), 1);
+        }
+
+        List<NotificationDTO> notificationDTOs = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            notificationDTOs.add(convertToDTO(notification));
+        }
+        // Pushed from the notification pool once this transaction commits
+        eventPublisher.publishEvent(new NotificationDispatcher.PushRequested(notifications, notificationDTOs));
+        log.info("Decision notifications stored for {} lecturers", notificationDTOs.size());
     }
 
     public void notifyHROfLeaveCancellation(LeaveRequest leaveRequest) {
-        log.info("Sending cancellation notification to HR for leave request ID: {}", leaveRequest.getId());
-
-        List<User> hrUsers = userRepository.findAllActiveHRUsers();
+        log.info("Queueing cancellation notification to HR for leave request ID: {}", leaveRequest.getId());
 
         String title = "Leave Request Cancelled";
         String message = String.format("%s has cancelled their %s request from %s to %s.",
@@ -144,32 +117,12 @@ public class NotificationService {
                 leaveRequest.getStartDate(),
                 leaveRequest.getEndDate());
 
-        for (User hrUser : hrUsers) {
-            Notification notification = createNotification(
-                    hrUser,
-                    leaveRequest.getLecturer(),
-                    leaveRequest,
-                    title,
-                    message,
-                    NotificationType.LEAVE_REQUEST_CANCELLED
-            );
-
-            Notification savedNotification = notificationRepository.save(notification);
-
-            // Send real-time notification via WebSocket
-            NotificationDTO notificationDTO = convertToDTO(savedNotification);
-            messagingTemplate.convertAndSendToUser(
-                    hrUser.getUsername(),
-                    "/queue/notifications",
-                    notificationDTO
-            );
-        }
-
-        log.info("Cancellation notifications sent to {} HR users", hrUsers.size());
+        enqueue(NotificationAudience.HR, null, leaveRequest.getLecturer(), leaveRequest,
+                title, message, NotificationType.LEAVE_REQUEST_CANCELLED);
     }
 
     public List<NotificationDTO> getNotificationsByUser(String username) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         List<Notification> notifications = notificationRepository.findByRecipientOrderByCreatedAtDesc(user);
@@ -177,7 +130,7 @@ public class NotificationService {
     }
 
     public List<NotificationDTO> getUnreadNotificationsByUser(String username) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         List<Notification> notifications = notificationRepository.findUnreadNotificationsByRecipient(user);
@@ -185,14 +138,14 @@ public class NotificationService {
     }
 
     public long getUnreadNotificationsCount(String username) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return notificationRepository.countUnreadNotificationsByRecipient(user);
+        return unreadCountService.getUnreadCount(user.getId());
     }
 
     public NotificationDTO markNotificationAsRead(Long notificationId, String username) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Notification notification = notificationRepository.findById(notificationId)
@@ -202,30 +155,74 @@ public class NotificationService {
             throw new RuntimeException("You can only mark your own notifications as read");
         }
 
+        boolean wasUnread = !notification.isRead();
         notification.markAsRead();
         Notification savedNotification = notificationRepository.save(notification);
 
+        if (wasUnread) {
+            unreadCountService.adjustAfterCommit(user.getId(), username, -1);
+        }
+
         return convertToDTO(savedNotification);
     }
 
     public void markAllNotificationsAsRead(String username) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         notificationRepository.markAllAsReadByRecipient(user);
+        unreadCountService.resetAfterCommit(user.getId(), username);
 
         log.info("All notifications marked as read for user: {}", username);
     }
 
     public void deleteReadNotifications(String username) {
-        User user = userRepository.findByEmail(username)
+        User user = userLookupService.findReferenceByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        // Only read notifications are removed, so the unread counter is unaffected
         notificationRepository.deleteReadNotificationsByRecipient(user);
 
         log.info("Read notifications deleted for user: {}", username);
     }
 
+    private String approvalMessage(LeaveRequest leaveRequest, String approverName) {
+        return String.format("Your %s request from %s to %s has been approved by %s. %s",
+                leaveRequest.getLeaveType().toString().replace("_", " ").toLowerCase(),
+                leaveRequest.getStartDate(),
+                leaveRequest.getEndDate(),
+                approverName,
+                leaveRequest.getHrComments() != null ? "Comments: " + leaveRequest.getHrComments() : "");
+    }
+
+    private String rejectionMessage(LeaveRequest leaveRequest, String approverName) {
+        return String.format("Your %s request from %s to %s has been rejected by %s. %s",
+                leaveRequest.getLeaveType().toString().replace("_", " ").toLowerCase(),
+                leaveRequest.getStartDate(),
+                leaveRequest.getEndDate(),
+                approverName,
+                leaveRequest.getHrComments() != null ? "Reason: " + leaveRequest.getHrComments() : "");
+    }
+
+    /**
+     * Write a notification to the outbox in the caller's transaction; NotificationDispatcher delivers it after commit
+     */
+    private void enqueue(NotificationAudience audience, User recipient, User sender, LeaveRequest leaveRequest,
+                         String title, String message, NotificationType type) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setAudience(audience);
+        entry.setRecipientId(recipient != null ? recipient.getId() : null);
+        entry.setSenderId(sender != null ? sender.getId() : null);
+        entry.setLeaveRequestId(leaveRequest != null ? leaveRequest.getId() : null);
+        entry.setTitle(title);
+        entry.setMessage(message);
+        entry.setType(type);
+        entry.setStatus(OutboxStatus.PENDING);
+
+        notificationOutboxRepository.save(entry);
+        eventPublisher.publishEvent(new NotificationDispatcher.OutboxWritten());
+    }
+
     private Notification createNotification(User recipient, User sender, LeaveRequest leaveRequest,
                                             String title, String message, NotificationType type) {
         Notification notification = new Notification();
@@ -240,7 +237,7 @@ public class NotificationService {
         return notification;
     }
 
-    private NotificationDTO convertToDTO(Notification notification) {
+    NotificationDTO convertToDTO(Notification notification) {
         NotificationDTO dto = new NotificationDTO();
         dto.setId(notification.getId());
         dto.setRecipientId(notification.getRecipient().getId());
@@ -0,0 +1,260 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitioning on created_at for chat_messages and notifications.
+ * The first run converts each table in place: the existing table is attached as a single "legacy"
+ * partition holding everything before the current month, so no historical rows are copied.
+ * Every run then pre-creates the coming months' partitions and detaches or drops partitions that
+ * have aged out of the table's retention window, so retention never deletes row by row.
+ * A DEFAULT partition catches rows dated past the last premade month; they move into their month's
+ * partition when it is created.
+ */
+@Component
+@Slf4j
+public class PartitionManager {
+
+    // Namespace for pg_advisory_xact_lock(int, int), so only one node runs maintenance at a time
+    private static final int ADVISORY_LOCK_NAMESPACE = 0x50415254; // "PART"
+
+    private static final String PARTITION_KEY = "created_at";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final boolean dropExpired;
+    // Table name -> months kept; 0 keeps everything
+    private final Map<String, Integer> retentionMonths = new LinkedHashMap<>();
+
+    public PartitionManager(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.partitioning.enabled:false}") boolean enabled,
+                            @Value("${app.partitioning.premake-months:3}") int premakeMonths,
+                            @Value("${app.partitioning.drop-expired:false}") boolean dropExpired,
+                            @Value("${app.partitioning.chat-messages.retention-months:0}") int chatRetentionMonths,
+                            @Value("${app.partitioning.notifications.retention-months:12}") int notificationRetentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.premakeMonths = premakeMonths;
+        this.dropExpired = dropExpired;
+        this.retentionMonths.put("chat_messages", chatRetentionMonths);
+        this.retentionMonths.put("notifications", notificationRetentionMonths);
+    }
+
+    /**
+     * Runs at startup (after Hibernate has created the tables) and daily
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth currentMonth = YearMonth.now();
+
+        retentionMonths.forEach((table, months) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> maintainTable(table, months, currentMonth));
+            } catch (RuntimeException e) {
+                log.error("Partition maintenance of {} failed: {}", table, e.getMessage());
+            }
+        });
+    }
+
+    private void maintainTable(String table, int months, YearMonth currentMonth) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null, ADVISORY_LOCK_NAMESPACE, table.hashCode());
+
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, table);
+        if (kinds.isEmpty()) {
+            log.warn("Partition maintenance skipped: table {} does not exist", table);
+            return;
+        }
+        if (!"p".equals(kinds.get(0))) {
+            convert(table, currentMonth);
+        }
+
+        createDefaultPartition(table);
+        for (int i = 0; i <= premakeMonths; i++) {
+            createPartition(table, currentMonth.plusMonths(i));
+        }
+
+        if (months > 0) {
+            expire(table, currentMonth.minusMonths(months));
+        }
+    }
+
+    /**
+     * Replace a plain table by a partitioned one with the same columns, defaults, check constraints, indexes
+     * and foreign keys. Rows from the current month on are moved into monthly partitions; the rest stay where
+     * they are and become the legacy partition. Runs in one transaction, so a failure leaves the table untouched.
+     * Unique constraints and indexes can only exist on a partitioned table if they include the partition key,
+     * so a table that has any is refused rather than converted without them.
+     */
+    private void convert(String table, YearMonth currentMonth) {
+        String legacy = table + "_legacy";
+        LocalDateTime boundary = currentMonth.atDay(1).atStartOfDay();
+
+        jdbcTemplate.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+
+        List<String> uniques = jdbcTemplate.queryForList(
+                "SELECT i.relname::text FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid " +
+                "WHERE x.indrelid = to_regclass(?) AND x.indisunique AND NOT x.indisprimary", String.class, table);
+        if (!uniques.isEmpty()) {
+            throw new IllegalStateException("Cannot partition " + table + ": unique constraints/indexes " + uniques
+                    + " would be lost; drop them or add " + PARTITION_KEY + " to them first");
+        }
+
+        // The partition key must be NOT NULL; undated rows go to the legacy partition
+        jdbcTemplate.update("UPDATE " + table + " SET " + PARTITION_KEY + " = TIMESTAMP 'epoch' WHERE " + PARTITION_KEY + " IS NULL");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + PARTITION_KEY + " SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + legacy);
+
+        // Free the original constraint and index names for the partitioned table
+        for (String primaryKey : jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'p'", String.class, legacy)) {
+            jdbcTemplate.execute("ALTER TABLE " + legacy + " RENAME CONSTRAINT " + primaryKey + " TO " + legacy + "_pkey");
+        }
+
+        List<Map<String, Object>> indexes = jdbcTemplate.queryForList(
+                "SELECT i.relname AS name, pg_get_indexdef(x.indexrelid) AS definition " +
+                "FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid " +
+                "WHERE x.indrelid = to_regclass(?) AND NOT EXISTS (SELECT 1 FROM pg_constraint c " +
+                "WHERE c.conrelid = x.indrelid AND c.conindid = x.indexrelid AND c.contype IN ('p', 'u', 'x'))",
+                legacy);
+        for (Map<String, Object> index : indexes) {
+            jdbcTemplate.execute("ALTER INDEX " + index.get("name") + " RENAME TO " + legacyName((String) index.get("name")));
+        }
+
+        // Partitioned tables cannot carry an identity column on every Postgres version; use a plain sequence
+        Map<String, Long> identityColumns = new LinkedHashMap<>();
+        for (String column : jdbcTemplate.queryForList(
+                "SELECT attname::text FROM pg_attribute WHERE attrelid = to_regclass(?) AND attnum > 0 AND attidentity <> ''",
+                String.class, legacy)) {
+            Long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + legacy, Long.class);
+            jdbcTemplate.execute("ALTER TABLE " + legacy + " ALTER COLUMN " + column + " DROP IDENTITY");
+            identityColumns.put(column, next);
+        }
+
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) " +
+                "PARTITION BY RANGE (" + PARTITION_KEY + ")");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + table + "_pkey PRIMARY KEY (id, " + PARTITION_KEY + ")");
+
+        identityColumns.forEach((column, next) -> {
+            String sequence = table + "_" + column + "_seq";
+            jdbcTemplate.execute("CREATE SEQUENCE " + sequence + " START WITH " + next);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " SET DEFAULT nextval('" + sequence + "')");
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + table + "." + column);
+        });
+
+        for (Map<String, Object> index : indexes) {
+            String definition = (String) index.get("definition");
+            jdbcTemplate.execute("CREATE INDEX " + index.get("name") + " ON " + table
+                    + definition.substring(definition.indexOf(" USING ")));
+        }
+
+        for (Map<String, Object> foreignKey : jdbcTemplate.queryForList(
+                "SELECT conname AS name, pg_get_constraintdef(oid) AS definition FROM pg_constraint " +
+                "WHERE conrelid = to_regclass(?) AND contype = 'f'", legacy)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + foreignKey.get("name")
+                    + " " + foreignKey.get("definition"));
+        }
+
+        createDefaultPartition(table);
+        for (int i = 0; i <= premakeMonths; i++) {
+            createPartition(table, currentMonth.plusMonths(i));
+        }
+
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + legacy + " WHERE " + PARTITION_KEY + " >= ? RETURNING *) "
+                + "INSERT INTO " + table + " SELECT * FROM moved", boundary);
+
+        // Matching indexes and foreign keys on the legacy table are adopted rather than rebuilt
+        jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + legacy
+                + " FOR VALUES FROM (MINVALUE) TO ('" + boundary.format(BOUND_FORMAT) + "')");
+
+        log.info("Converted {} to monthly partitions: {} current rows moved, older rows kept in {}", table, moved, legacy);
+    }
+
+    private void createDefaultPartition(String table) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + "_default PARTITION OF " + table + " DEFAULT");
+    }
+
+    /**
+     * Create a month's partition, taking over any of its rows that already landed in the DEFAULT partition
+     * (attaching fails while the default partition still holds rows in the new range)
+     */
+    private void createPartition(String table, YearMonth month) {
+        String partition = table + "_p" + month.format(PARTITION_SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition))) {
+            return;
+        }
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + table + "_default WHERE " + PARTITION_KEY
+                + " >= ? AND " + PARTITION_KEY + " < ? RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + partition
+                + " FOR VALUES FROM ('" + from.format(BOUND_FORMAT) + "') TO ('" + to.format(BOUND_FORMAT) + "')");
+
+        if (moved > 0) {
+            log.warn("Moved {} row(s) of {} from the default partition into {}", moved, table, partition);
+        }
+    }
+
+    /**
+     * Detach (or drop) partitions whose whole range lies before the first day of the cutoff month
+     */
+    private void expire(String table, YearMonth cutoffMonth) {
+        LocalDateTime cutoff = cutoffMonth.atDay(1).atStartOfDay();
+
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)",
+                table);
+
+        for (Map<String, Object> partition : partitions) {
+            Matcher upper = UPPER_BOUND.matcher((String) partition.get("bound"));
+            if (!upper.find() || LocalDateTime.parse(upper.group(1), BOUND_FORMAT).isAfter(cutoff)) {
+                continue;
+            }
+
+            String name = (String) partition.get("name");
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + name);
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+                log.info("Dropped expired partition {} of {}", name, table);
+            } else {
+                log.info("Detached expired partition {} of {}; archive or drop it manually", name, table);
+            }
+        }
+    }
+
+    private static String legacyName(String name) {
+        // Postgres identifiers are at most 63 bytes
+        return name.substring(0, Math.min(name.length(), 56)) + "_legacy";
+    }
+}
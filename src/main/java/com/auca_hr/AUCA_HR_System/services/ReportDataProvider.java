@@ -1,10 +1,78 @@
 package com.auca_hr.AUCA_HR_System.services;
 
+import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface ReportDataProvider {
-    List<Map<String, Object>> getData(String reportType, Map<String, Object> parameters);
-    String[] getHeaders(String reportType);
-}
 
+    @FunctionalInterface
+    interface RowSink {
+        void accept(Map<String, Object> row) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface BatchSink {
+        void accept(RowBatch batch) throws IOException;
+    }
+
+    /**
+     * Column names and types; unknown report types are rejected
+     */
+    ReportSchema getSchema(String reportType);
+
+    /**
+     * Push the report's rows to sink in order, one batch at a time as they are read.
+     * The batch is reused: it is only valid until accept returns.
+     */
+    void streamBatches(ReportRequest request, BatchSink sink) throws IOException;
+
+    Set<String> getReportTypes();
+
+    /**
+     * Column headers, which are also the row map keys
+     */
+    default String[] getHeaders(String reportType) {
+        return getSchema(reportType).names();
+    }
+
+    /**
+     * Row-map view of {@link #streamBatches}. The row map is reused between calls: copy it to keep it.
+     */
+    default void streamData(ReportRequest request, RowSink sink) throws IOException {
+        Map<String, Object> row = new HashMap<>();
+        streamBatches(request, batch -> {
+            ReportSchema schema = batch.schema();
+            for (int r = 0; r < batch.size(); r++) {
+                for (int c = 0; c < schema.size(); c++) {
+                    row.put(schema.name(c), batch.get(r, c));
+                }
+                sink.accept(row);
+            }
+        });
+    }
+
+    /**
+     * All rows in memory; only for small reports
+     */
+    default List<Map<String, Object>> getData(String reportType, Map<String, Object> parameters) {
+        ReportRequest request = new ReportRequest();
+        request.setReportType(reportType);
+        request.setParameters(parameters);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try {
+            streamData(request, row -> rows.add(new LinkedHashMap<>(row)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+}
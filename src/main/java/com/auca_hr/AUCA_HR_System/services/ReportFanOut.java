@@ -0,0 +1,225 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.config.ExecutorConfig;
+import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders one report in several formats from a single read of the data provider.
+ * The caller's thread reads; each generator writes on its own sink thread and is fed through a
+ * bounded queue, so the read runs at the pace of the slowest writer and memory stays bounded.
+ * The provider reuses its batch, so every batch is copied once into a pooled batch that all sinks
+ * share read-only and that returns to the pool when the last sink has written it.
+ */
+@Component
+@Slf4j
+public class ReportFanOut {
+
+    private final Executor executor;
+    private final int queueSize;
+
+    public ReportFanOut(@Qualifier(ExecutorConfig.REPORT_SINK_EXECUTOR) Executor executor,
+                        @Value("${app.reports.fan-out.batch-queue-size:4}") int queueSize) {
+        this.executor = executor;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Write the report once per generator, generators.get(i) to outputs.get(i).
+     * A failing writer does not stop the others; a failing read fails them all.
+     *
+     * @return one entry per generator: null when its report was written, otherwise why it was not
+     * @throws IOException when the data could not be read
+     */
+    public List<Exception> write(ReportDataProvider dataProvider, ReportRequest request, String title,
+                                 List<ReportGenerator> generators, List<OutputStream> outputs) throws IOException {
+        String[] headers = dataProvider.getHeaders(request.getReportType());
+        ConcurrentLinkedQueue<SharedBatch> pool = new ConcurrentLinkedQueue<>();
+
+        List<Sink> sinks = new ArrayList<>();
+        try {
+            for (int i = 0; i < generators.size(); i++) {
+                Sink sink = new Sink(generators.get(i), outputs.get(i), headers, title, pool);
+                sink.future = CompletableFuture.runAsync(sink, executor);
+                sinks.add(sink);
+            }
+        } catch (RuntimeException e) {
+            // The executor is full: stop the sinks that did start
+            endAll(sinks, SharedBatch.ABORT);
+            throw e;
+        }
+
+        try {
+            dataProvider.streamBatches(request, batch -> {
+                if (batch.isEmpty()) {
+                    return;
+                }
+                if (sinks.stream().allMatch(sink -> sink.failure != null)) {
+                    throw new IOException("Every report writer failed");
+                }
+                SharedBatch shared = pool.poll();
+                if (shared == null) {
+                    shared = new SharedBatch(new RowBatch(batch.schema(), batch.capacity()));
+                }
+                shared.batch.copyFrom(batch);
+                shared.pending.set(sinks.size());
+                for (Sink sink : sinks) {
+                    put(sink.queue, shared);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            endAll(sinks, SharedBatch.ABORT);
+            awaitAll(sinks);
+            throw e;
+        }
+
+        endAll(sinks, SharedBatch.END);
+        awaitAll(sinks);
+
+        List<Exception> failures = new ArrayList<>();
+        for (Sink sink : sinks) {
+            failures.add(sink.failure);
+        }
+        return failures;
+    }
+
+    private static void endAll(List<Sink> sinks, SharedBatch marker) throws InterruptedIOException {
+        for (Sink sink : sinks) {
+            put(sink.queue, marker);
+        }
+    }
+
+    private static void awaitAll(List<Sink> sinks) throws InterruptedIOException {
+        for (Sink sink : sinks) {
+            try {
+                sink.future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for report writers");
+            } catch (ExecutionException e) {
+                // Sinks record their own failures; this only covers an error outside the write loop
+                if (sink.failure == null) {
+                    sink.failure = e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<SharedBatch> queue, SharedBatch batch) throws InterruptedIOException {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing a batch to a report writer");
+        }
+    }
+
+    /**
+     * A copied batch shared by every sink, plus the number of sinks that still have to write it
+     */
+    private static final class SharedBatch {
+        static final SharedBatch END = new SharedBatch(null);
+        static final SharedBatch ABORT = new SharedBatch(null);
+
+        final RowBatch batch;
+        final AtomicInteger pending = new AtomicInteger();
+
+        SharedBatch(RowBatch batch) {
+            this.batch = batch;
+        }
+    }
+
+    private final class Sink implements Runnable {
+        final BlockingQueue<SharedBatch> queue = new ArrayBlockingQueue<>(queueSize);
+        final ReportGenerator generator;
+        final OutputStream out;
+        final String[] headers;
+        final String title;
+        final ConcurrentLinkedQueue<SharedBatch> pool;
+        volatile Exception failure;
+        CompletableFuture<Void> future;
+
+        Sink(ReportGenerator generator, OutputStream out, String[] headers, String title,
+             ConcurrentLinkedQueue<SharedBatch> pool) {
+            this.generator = generator;
+            this.out = out;
+            this.headers = headers;
+            this.title = title;
+            this.pool = pool;
+        }
+
+        @Override
+        public void run() {
+            ReportWriter writer = null;
+            try {
+                writer = generator.open(headers, title, out);
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+
+            while (true) {
+                SharedBatch shared;
+                try {
+                    shared = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(e);
+                    return;
+                }
+
+                if (shared == SharedBatch.END) {
+                    if (failure == null) {
+                        try {
+                            writer.finish();
+                        } catch (IOException | RuntimeException e) {
+                            fail(e);
+                        }
+                    }
+                    return;
+                }
+                if (shared == SharedBatch.ABORT) {
+                    if (failure == null) {
+                        failure = new IOException("Report data could not be read");
+                    }
+                    return;
+                }
+
+                // After a failure the queue is still drained, so the reader never waits on this sink
+                if (failure == null) {
+                    try {
+                        writer.writeBatch(shared.batch);
+                    } catch (IOException | RuntimeException e) {
+                        fail(e);
+                    }
+                }
+                if (shared.pending.decrementAndGet() == 0) {
+                    shared.batch.clear();
+                    pool.offer(shared);
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            if (failure == null) {
+                failure = e;
+                log.warn("{} report writer failed: {}", generator.getFileExtension(), e.getMessage());
+            }
+        }
+    }
+}
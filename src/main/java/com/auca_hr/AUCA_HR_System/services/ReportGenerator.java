@@ -1,10 +1,42 @@
 package com.auca_hr.AUCA_HR_System.services;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Map;
 
 public interface ReportGenerator {
-    byte[] generateReport(List<Map<String, Object>> data, String[] headers, String fileName);
+
+    /**
+     * Start a report on the caller's stream; rows are encoded and written as they are passed in
+     */
+    ReportWriter open(String[] headers, String title, OutputStream out) throws IOException;
+
+    default ReportWriter open(String[] headers, String title, WritableByteChannel channel) throws IOException {
+        return open(headers, title, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Whole report in memory; only for small reports, use {@link #open} for anything that can grow
+     */
+    default byte[] generateReport(List<Map<String, Object>> data, String[] headers, String fileName) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ReportWriter writer = open(headers, fileName, baos);
+            for (Map<String, Object> row : data) {
+                writer.writeRow(row);
+            }
+            writer.finish();
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error generating report", e);
+        }
+    }
+
     String getContentType();
     String getFileExtension();
-}
\ No newline at end of file
+}
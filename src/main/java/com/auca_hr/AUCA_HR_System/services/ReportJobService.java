@@ -0,0 +1,419 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.config.ExecutorConfig;
+import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
+import com.auca_hr.AUCA_HR_System.dtos.ReportResponse;
+import com.auca_hr.AUCA_HR_System.entities.ReportJob;
+import com.auca_hr.AUCA_HR_System.enums.ReportJobStatus;
+import com.auca_hr.AUCA_HR_System.exceptions.ResourceNotFoundException;
+import com.auca_hr.AUCA_HR_System.exceptions.TooManyRequestsException;
+import com.auca_hr.AUCA_HR_System.repositories.ReportJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs reports in the background on a bounded executor, so no request thread waits for one.
+ * Job state is persisted in report_jobs and polled by the client. A finished file is stored under
+ * the hash of its canonical request; an identical request within the cache TTL gets a new job that
+ * is DONE immediately and points at the same file.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    private static final List<ReportJobStatus> ACTIVE = List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING);
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportService reportService;
+    private final Executor executor;
+    private final ObjectMapper canonicalMapper;
+    private final Path reportsDirectory;
+    private final int maxActivePerUser;
+    private final Duration cacheTtl;
+    private final Duration retention;
+    private final boolean precompress;
+
+    // Queued + running jobs per user on this node
+    private final Map<String, AtomicInteger> activeByUser = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            ReportService reportService,
+                            @Qualifier(ExecutorConfig.REPORT_EXECUTOR) Executor executor,
+                            ObjectMapper objectMapper,
+                            @Value("${app.reports.directory:generated-reports}") String reportsDirectory,
+                            @Value("${app.reports.jobs.max-active-per-user:2}") int maxActivePerUser,
+                            @Value("${app.reports.jobs.cache-ttl-minutes:15}") long cacheTtlMinutes,
+                            @Value("${app.reports.jobs.retention-hours:24}") long retentionHours,
+                            @Value("${app.reports.precompress:true}") boolean precompress) {
+        this.reportJobRepository = reportJobRepository;
+        this.reportService = reportService;
+        this.executor = executor;
+        this.canonicalMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.reportsDirectory = Paths.get(reportsDirectory).toAbsolutePath().normalize();
+        this.maxActivePerUser = maxActivePerUser;
+        this.cacheTtl = Duration.ofMinutes(cacheTtlMinutes);
+        this.retention = Duration.ofHours(retentionHours);
+        this.precompress = precompress;
+    }
+
+    public ReportResponse submit(ReportRequest request, String username) {
+        ReportRequest single = new ReportRequest();
+        single.setReportType(request.getReportType());
+        single.setFormat(request.getFormat());
+        single.setStartDate(request.getStartDate());
+        single.setEndDate(request.getEndDate());
+        single.setParameters(request.getParameters());
+        single.setTemplateName(request.getTemplateName());
+        return submitAll(single, username).get(0);
+    }
+
+    /**
+     * One job per requested format. Formats that are neither in flight nor cached are generated
+     * together from a single read of the data and count as one active report for the user.
+     */
+    public List<ReportResponse> submitAll(ReportRequest request, String username) {
+        reportService.validate(request);
+        List<ReportGenerator> generators = reportService.getReportGenerators(request);
+
+        ReportResponse[] responses = new ReportResponse[generators.size()];
+        List<ReportJob> pending = new ArrayList<>();
+        List<ReportGenerator> pendingGenerators = new ArrayList<>();
+        List<Integer> pendingSlots = new ArrayList<>();
+
+        for (int i = 0; i < generators.size(); i++) {
+            ReportGenerator generator = generators.get(i);
+            String requestJson = canonicalJson(request, generator);
+            String requestHash = sha256(requestJson);
+
+            // The same user asking again while the first job is still going gets that job
+            var inFlight = reportJobRepository.findFirstByRequestHashAndRequestedByAndStatusIn(requestHash, username, ACTIVE);
+            if (inFlight.isPresent()) {
+                responses[i] = toResponse(inFlight.get());
+                continue;
+            }
+
+            ReportJob job = new ReportJob();
+            job.setRequestedBy(username);
+            job.setReportType(request.getReportType().toLowerCase());
+            job.setFormat(generator.getFileExtension().substring(1).toUpperCase());
+            job.setRequestHash(requestHash);
+            job.setRequestJson(requestJson);
+            job.setContentType(generator.getContentType());
+            job.setFileName(reportService.buildFileName(request, generator));
+
+            var cached = reportJobRepository.findFirstByRequestHashAndStatusAndCacheHitFalseAndCompletedAtAfterOrderByCompletedAtDesc(
+                    requestHash, ReportJobStatus.DONE, LocalDateTime.now().minus(cacheTtl));
+            if (cached.isPresent() && Files.exists(resolve(cached.get().getStoredFile()))) {
+                ReportJob source = cached.get();
+                job.setStatus(ReportJobStatus.DONE);
+                job.setCacheHit(true);
+                job.setStoredFile(source.getStoredFile());
+                job.setFileSizeBytes(source.getFileSizeBytes());
+                job.setStartedAt(LocalDateTime.now());
+                job.setCompletedAt(LocalDateTime.now());
+                cacheHits.increment();
+                responses[i] = toResponse(reportJobRepository.save(job));
+                continue;
+            }
+
+            pending.add(job);
+            pendingGenerators.add(generator);
+            pendingSlots.add(i);
+        }
+
+        if (pending.isEmpty()) {
+            return Arrays.asList(responses);
+        }
+
+        AtomicInteger active = activeByUser.computeIfAbsent(username, key -> new AtomicInteger());
+        if (active.incrementAndGet() > maxActivePerUser) {
+            active.decrementAndGet();
+            throw new TooManyRequestsException("You already have " + maxActivePerUser + " reports in progress");
+        }
+
+        List<ReportJob> saved = new ArrayList<>();
+        try {
+            saved.addAll(reportJobRepository.saveAll(pending));
+            List<String> jobIds = saved.stream().map(ReportJob::getId).collect(Collectors.toList());
+            executor.execute(() -> run(jobIds, request, pendingGenerators, username));
+        } catch (RejectedExecutionException e) {
+            active.decrementAndGet();
+            reportJobRepository.deleteAll(saved);
+            throw new TooManyRequestsException("The report queue is full, try again later");
+        } catch (RuntimeException e) {
+            active.decrementAndGet();
+            throw e;
+        }
+
+        for (int i = 0; i < saved.size(); i++) {
+            responses[pendingSlots.get(i)] = toResponse(saved.get(i));
+        }
+        return Arrays.asList(responses);
+    }
+
+    public ReportResponse getJob(String jobId, String username) {
+        return toResponse(findJob(jobId, username));
+    }
+
+    public List<ReportResponse> getJobs(String username) {
+        return reportJobRepository.findByRequestedByOrderByCreatedAtDesc(username).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The finished file of a DONE job
+     */
+    public ReportJob getDownload(String jobId, String username) {
+        ReportJob job = findJob(jobId, username);
+        if (job.getStatus() != ReportJobStatus.DONE || job.getStoredFile() == null) {
+            throw new ResourceNotFoundException("Report " + jobId + " is not ready");
+        }
+        return job;
+    }
+
+    public Path resolve(String storedFile) {
+        return reportsDirectory.resolve(storedFile);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", reportJobRepository.countByStatus(ReportJobStatus.QUEUED));
+        stats.put("running", reportJobRepository.countByStatus(ReportJobStatus.RUNNING));
+        stats.put("generated", generated.sum());
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("activeUsers", activeByUser.values().stream().filter(count -> count.get() > 0).count());
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int interrupted = reportJobRepository.failAll(ACTIVE, ReportJobStatus.FAILED,
+                "Interrupted by a restart, submit the report again", LocalDateTime.now());
+        if (interrupted > 0) {
+            log.warn("{} report jobs were interrupted by a restart", interrupted);
+        }
+    }
+
+    /**
+     * Delete jobs past retention and any stored file no remaining job points at
+     */
+    @Scheduled(cron = "${app.reports.jobs.cleanup-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        List<ReportJob> expired = reportJobRepository.findByCreatedAtBefore(cutoff);
+
+        for (ReportJob job : expired) {
+            reportJobRepository.delete(job);
+            String storedFile = job.getStoredFile();
+            if (storedFile != null && !reportJobRepository.isFileInUse(storedFile, cutoff)) {
+                try {
+                    Files.deleteIfExists(resolve(storedFile));
+                    Files.deleteIfExists(resolve(storedFile + ".gz"));
+                } catch (IOException e) {
+                    log.warn("Could not delete expired report {}: {}", storedFile, e.getMessage());
+                }
+            }
+        }
+
+        if (!expired.isEmpty()) {
+            log.info("Purged {} expired report jobs", expired.size());
+        }
+    }
+
+    private void run(List<String> jobIds, ReportRequest request, List<ReportGenerator> generators, String username) {
+        List<ReportJob> jobs = new ArrayList<>();
+        List<Path> temps = new ArrayList<>();
+        List<OutputStream> outputs = new ArrayList<>();
+        try {
+            for (String jobId : jobIds) {
+                ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+                if (job == null) {
+                    return;
+                }
+                job.setStatus(ReportJobStatus.RUNNING);
+                job.setStartedAt(LocalDateTime.now());
+                jobs.add(reportJobRepository.save(job));
+            }
+
+            Files.createDirectories(reportsDirectory);
+            // Written under temporary names and moved into place, so a partial file is never served
+            for (ReportJob job : jobs) {
+                Path temp = Files.createTempFile(reportsDirectory, job.getRequestHash(), ".part");
+                temps.add(temp);
+                outputs.add(new BufferedOutputStream(Files.newOutputStream(temp)));
+            }
+
+            List<Exception> failures = reportService.writeReports(request, generators, outputs);
+
+            for (int i = 0; i < jobs.size(); i++) {
+                ReportJob job = jobs.get(i);
+                try {
+                    outputs.get(i).close();
+                    if (failures.get(i) != null) {
+                        fail(job, failures.get(i));
+                        continue;
+                    }
+                    ReportGenerator generator = generators.get(i);
+                    String storedFile = job.getRequestHash() + generator.getFileExtension();
+                    Path target = resolve(storedFile);
+                    Files.move(temps.get(i), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    if (precompress && generator.getContentType().startsWith("text/")) {
+                        writeGzipSibling(target);
+                    }
+
+                    job.setStoredFile(storedFile);
+                    job.setFileSizeBytes(Files.size(target));
+                    job.setStatus(ReportJobStatus.DONE);
+                    job.setCompletedAt(LocalDateTime.now());
+                    reportJobRepository.save(job);
+                    generated.increment();
+                } catch (IOException | RuntimeException e) {
+                    fail(job, e);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (ReportJob job : jobs) {
+                if (job.getStatus() == ReportJobStatus.RUNNING) {
+                    fail(job, e);
+                }
+            }
+        } finally {
+            for (OutputStream out : outputs) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.debug("Closing a report file failed: {}", e.getMessage());
+                }
+            }
+            for (Path temp : temps) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary report {}: {}", temp.getFileName(), e.getMessage());
+                }
+            }
+            AtomicInteger active = activeByUser.get(username);
+            if (active != null) {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private void fail(ReportJob job, Exception e) {
+        log.error("Report job {} failed: {}", job.getId(), e.getMessage());
+        job.setStatus(ReportJobStatus.FAILED);
+        job.setErrorMessage(truncate(e.getMessage()));
+        job.setCompletedAt(LocalDateTime.now());
+        reportJobRepository.save(job);
+    }
+
+    /**
+     * Compress a finished text report once so downloads can send it as is
+     */
+    private void writeGzipSibling(Path file) {
+        Path gzipped = file.resolveSibling(file.getFileName() + ".gz");
+        try {
+            Path temp = Files.createTempFile(reportsDirectory, file.getFileName().toString(), ".gz.part");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    Files.copy(file, out);
+                }
+                Files.move(temp, gzipped, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // The plain file is still served
+            log.warn("Could not precompress {}: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    private ReportJob findJob(String jobId, String username) {
+        return reportJobRepository.findByIdAndRequestedBy(jobId, username)
+                .orElseThrow(() -> new ResourceNotFoundException("Report " + jobId + " not found"));
+    }
+
+    private ReportResponse toResponse(ReportJob job) {
+        ReportResponse response = new ReportResponse(job.getId(), job.getFileName(),
+                job.getStatus() == ReportJobStatus.DONE ? "/api/reports/jobs/" + job.getId() + "/download" : null);
+        response.setStatus(job.getStatus().name());
+        response.setGeneratedAt(job.getCompletedAt());
+        response.setFileSizeBytes(job.getFileSizeBytes());
+        response.setContentType(job.getContentType());
+        response.setErrorMessage(job.getErrorMessage());
+        return response;
+    }
+
+    /**
+     * Request fields that affect the output, with normalised type and format and sorted parameter keys
+     */
+    private String canonicalJson(ReportRequest request, ReportGenerator generator) {
+        Map<String, Object> canonical = new TreeMap<>();
+        canonical.put("reportType", request.getReportType().toLowerCase());
+        canonical.put("format", generator.getFileExtension());
+        canonical.put("startDate", request.getStartDate() != null ? request.getStartDate().toString() : null);
+        canonical.put("endDate", request.getEndDate() != null ? request.getEndDate().toString() : null);
+        canonical.put("parameters", request.getParameters() != null ? request.getParameters() : Map.of());
+        canonical.put("templateName", request.getTemplateName());
+        try {
+            return canonicalMapper.writeValueAsString(canonical);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
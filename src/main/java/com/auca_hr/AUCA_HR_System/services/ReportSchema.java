@@ -0,0 +1,63 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed, ordered column layout of a report: the header text and value type of each column
+ */
+public final class ReportSchema {
+
+    public enum ColumnType {
+        STRING,
+        LONG,
+        DECIMAL,
+        DATE,
+        DATETIME,
+        BOOLEAN,
+        ENUM
+    }
+
+    private final String[] names;
+    private final ColumnType[] types;
+
+    private ReportSchema(String[] names, ColumnType[] types) {
+        this.names = names;
+        this.types = types;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int column) {
+        return names[column];
+    }
+
+    public ColumnType type(int column) {
+        return types[column];
+    }
+
+    public String[] names() {
+        return names.clone();
+    }
+
+    public static final class Builder {
+        private final List<String> names = new ArrayList<>();
+        private final List<ColumnType> types = new ArrayList<>();
+
+        public Builder column(String name, ColumnType type) {
+            names.add(name);
+            types.add(type);
+            return this;
+        }
+
+        public ReportSchema build() {
+            return new ReportSchema(names.toArray(new String[0]), types.toArray(new ColumnType[0]));
+        }
+    }
+}
@@ -1,97 +1,116 @@
-//package com.auca_hr.AUCA_HR_System.services;
-//
-//import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
-//import com.auca_hr.AUCA_HR_System.dtos.ReportResponse;
-//import org.springframework.beans.factory.annotation.Autowired;
-//import org.springframework.beans.factory.annotation.Qualifier;
-//import org.springframework.stereotype.Service;
-//import java.io.File;
-//import java.io.FileOutputStream;
-//import java.time.LocalDateTime;
-//import java.time.format.DateTimeFormatter;
-//import java.util.List;
-//import java.util.Map;
-//import java.util.UUID;
-//
-//@Service
-//public class ReportService {
-//
-//    @Autowired
-//    private ReportDataProvider dataProvider;
-//
-//    @Autowired
-//    @Qualifier("PDF")
-//    private ReportGenerator pdfGenerator;
-//
-//    @Autowired
-//    @Qualifier("EXCEL")
-//    private ReportGenerator excelGenerator;
-//
-//    @Autowired
-//    @Qualifier("CSV")
-//    private ReportGenerator csvGenerator;
-//
-//    private final String REPORTS_DIRECTORY = "generated-reports/";
-//
-//    public ReportResponse generateReport(ReportRequest request) {
-//        try {
-//            // Create reports directory if it doesn't exist
-//            File reportsDir = new File(REPORTS_DIRECTORY);
-//            if (!reportsDir.exists()) {
-//                reportsDir.mkdirs();
-//            }
-//
-//            // Get data and headers
-//            List<Map<String, Object>> data = dataProvider.getData(request.getReportType(), request.getParameters());
-//            String[] headers = dataProvider.getHeaders(request.getReportType());
-//
-//            // Generate filename
-//            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-//            String reportId = UUID.randomUUID().toString();
-//
-//            // Get appropriate generator
-//            ReportGenerator generator = getReportGenerator(request.getFormat());
-//            String fileName = request.getReportType() + "_" + timestamp + generator.getFileExtension();
-//
-//            // Generate report
-//            byte[] reportBytes = generator.generateReport(data, headers, request.getReportType() + " Report");
-//
-//            // Save to file
-//            File reportFile = new File(REPORTS_DIRECTORY + fileName);
-//            try (FileOutputStream fos = new FileOutputStream(reportFile)) {
-//                fos.write(reportBytes);
-//            }
-//
-//            // Create response
-//            ReportResponse response = new ReportResponse(reportId, fileName, "/api/reports/download/" + fileName);
-//            response.setFileSizeBytes(reportBytes.length);
-//            response.setContentType(generator.getContentType());
-//
-//            return response;
-//        } catch (Exception e) {
-//            throw new RuntimeException("Error generating report: " + e.getMessage(), e);
-//        }
-//    }
-//
-//    private ReportGenerator getReportGenerator(String format) {
-//        switch (format.toUpperCase()) {
-//            case "PDF":
-//                return pdfGenerator;
-//            case "EXCEL":
-//            case "XLSX":
-//                return excelGenerator;
-//            case "CSV":
-//                return csvGenerator;
-//            default:
-//                throw new IllegalArgumentException("Unsupported format: " + format);
-//        }
-//    }
-//
-//    public File getReportFile(String fileName) {
-//        File file = new File(REPORTS_DIRECTORY + fileName);
-//        if (!file.exists()) {
-//            throw new RuntimeException("Report file not found: " + fileName);
-//        }
-//        return file;
-//    }
-//}
\ No newline at end of file
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private final ReportDataProvider dataProvider;
+    // Generators by bean name: "CSV", "PDF", "EXCEL"
+    private final Map<String, ReportGenerator> generators;
+    private final ReportFanOut reportFanOut;
+
+    public ReportGenerator getReportGenerator(String format) {
+        String key = format.toUpperCase();
+        if ("XLSX".equals(key)) {
+            key = "EXCEL";
+        }
+        ReportGenerator generator = generators.get(key);
+        if (generator == null) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        return generator;
+    }
+
+    public Set<String> getReportTypes() {
+        return dataProvider.getReportTypes();
+    }
+
+    /**
+     * Reject an unknown report type or format before any of the response is written
+     */
+    public ReportGenerator validate(ReportRequest request) {
+        dataProvider.getHeaders(request.getReportType());
+        return getReportGenerator(request.getFormat());
+    }
+
+    /**
+     * The request's format followed by its extra formats, one generator each and duplicates dropped
+     */
+    public List<ReportGenerator> getReportGenerators(ReportRequest request) {
+        Set<ReportGenerator> requested = new LinkedHashSet<>();
+        requested.add(getReportGenerator(request.getFormat()));
+        if (request.getFormats() != null) {
+            for (String format : request.getFormats()) {
+                requested.add(getReportGenerator(format));
+            }
+        }
+        return new ArrayList<>(requested);
+    }
+
+    public Set<String> getSupportedFormats() {
+        return new TreeSet<>(generators.keySet());
+    }
+
+    public String buildFileName(ReportRequest request, ReportGenerator generator) {
+        String timestamp = LocalDateTime.now().format(FILE_TIMESTAMP);
+        return request.getReportType().replaceAll("[^A-Za-z0-9_-]", "_") + "_" + timestamp + generator.getFileExtension();
+    }
+
+    /**
+     * Write the report straight to out, row by row
+     */
+    public void writeReport(ReportRequest request, ReportGenerator generator, OutputStream out) throws IOException {
+        String reportType = request.getReportType();
+        String[] headers = dataProvider.getHeaders(reportType);
+
+        ReportWriter writer = generator.open(headers, reportType + " Report", out);
+        long[] rows = {0};
+        dataProvider.streamBatches(request, batch -> {
+            writer.writeBatch(batch);
+            rows[0] += batch.size();
+        });
+        writer.finish();
+
+        log.info("Report {} written as {} ({} rows)", reportType, generator.getFileExtension(), rows[0]);
+    }
+
+    /**
+     * Write the report in several formats from one read of the data, each format on its own thread
+     *
+     * @return one entry per generator: null when it was written, otherwise why it was not
+     */
+    public List<Exception> writeReports(ReportRequest request, List<ReportGenerator> generators,
+                                        List<OutputStream> outputs) throws IOException {
+        if (generators.size() == 1) {
+            writeReport(request, generators.get(0), outputs.get(0));
+            return Collections.singletonList(null);
+        }
+
+        String reportType = request.getReportType();
+        List<Exception> failures = reportFanOut.write(dataProvider, request, reportType + " Report", generators, outputs);
+        log.info("Report {} written in {} formats from one read, {} failed", reportType, generators.size(),
+                failures.stream().filter(Objects::nonNull).count());
+        return failures;
+    }
+}
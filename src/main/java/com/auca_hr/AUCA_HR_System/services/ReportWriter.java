@@ -0,0 +1,34 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An open report being written to a stream, fed one row or one batch at a time.
+ * Only the generator's own write buffer is held in memory.
+ */
+public interface ReportWriter {
+
+    void writeRow(Map<String, Object> row) throws IOException;
+
+    /**
+     * Write every row of the batch. The default goes through {@link #writeRow};
+     * generators that can read columns directly should override it.
+     */
+    default void writeBatch(RowBatch batch) throws IOException {
+        ReportSchema schema = batch.schema();
+        Map<String, Object> row = new HashMap<>();
+        for (int r = 0; r < batch.size(); r++) {
+            for (int c = 0; c < schema.size(); c++) {
+                row.put(schema.name(c), batch.get(r, c));
+            }
+            writeRow(row);
+        }
+    }
+
+    /**
+     * Complete the document and flush it. The underlying stream stays open; it belongs to the caller.
+     */
+    void finish() throws IOException;
+}
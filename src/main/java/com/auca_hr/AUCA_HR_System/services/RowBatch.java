@@ -0,0 +1,280 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A block of report rows stored column by column in typed arrays, reused from batch to batch.
+ * Longs and booleans are kept unboxed, cells are addressed by position rather than by header
+ * string, and no per-row objects are allocated.
+ */
+public final class RowBatch {
+
+    private final ReportSchema schema;
+    private final Column[] columns;
+    private final int capacity;
+    private int size;
+
+    public RowBatch(ReportSchema schema, int capacity) {
+        this.schema = schema;
+        this.capacity = capacity;
+        this.columns = new Column[schema.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = switch (schema.type(i)) {
+                case LONG -> new LongColumn(capacity);
+                case BOOLEAN -> new BooleanColumn(capacity);
+                case STRING -> new ObjectColumn(capacity, String.class);
+                case DECIMAL -> new ObjectColumn(capacity, BigDecimal.class);
+                case DATE -> new ObjectColumn(capacity, LocalDate.class);
+                case DATETIME -> new ObjectColumn(capacity, LocalDateTime.class);
+                case ENUM -> new ObjectColumn(capacity, Enum.class);
+            };
+        }
+    }
+
+    public ReportSchema schema() {
+        return schema;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Append a row with every cell null and return its index
+     */
+    public int addRow() {
+        if (size == capacity) {
+            throw new IllegalStateException("Row batch is full");
+        }
+        for (Column column : columns) {
+            column.nulls[size] = true;
+        }
+        return size++;
+    }
+
+    public void setLong(int row, int column, long value) {
+        LongColumn target = (LongColumn) columns[column];
+        target.values[row] = value;
+        target.nulls[row] = false;
+    }
+
+    public void setBoolean(int row, int column, boolean value) {
+        BooleanColumn target = (BooleanColumn) columns[column];
+        target.values[row] = value;
+        target.nulls[row] = false;
+    }
+
+    public void setString(int row, int column, String value) {
+        columns[column].set(row, value);
+    }
+
+    public void setDecimal(int row, int column, BigDecimal value) {
+        columns[column].set(row, value);
+    }
+
+    public void setDate(int row, int column, LocalDate value) {
+        columns[column].set(row, value);
+    }
+
+    public void setDateTime(int row, int column, LocalDateTime value) {
+        columns[column].set(row, value);
+    }
+
+    public void setEnum(int row, int column, Enum<?> value) {
+        columns[column].set(row, value);
+    }
+
+    /**
+     * Set a cell from a boxed value, e.g. a query result or a legacy row map
+     */
+    public void set(int row, int column, Object value) {
+        columns[column].set(row, value);
+    }
+
+    /**
+     * Replace this batch's rows with a copy of source's, column by column.
+     * Used to hand a provider's reused batch to consumers on other threads.
+     */
+    public void copyFrom(RowBatch source) {
+        if (source.schema != schema) {
+            throw new IllegalArgumentException("Row batch schemas differ");
+        }
+        if (source.size > capacity) {
+            throw new IllegalArgumentException("Row batch is too small: " + source.size + " > " + capacity);
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].copyFrom(source.columns[i], source.size);
+        }
+        size = source.size;
+    }
+
+    public boolean isNull(int row, int column) {
+        return columns[column].nulls[row];
+    }
+
+    public long getLong(int row, int column) {
+        return ((LongColumn) columns[column]).values[row];
+    }
+
+    public boolean getBoolean(int row, int column) {
+        return ((BooleanColumn) columns[column]).values[row];
+    }
+
+    /**
+     * The cell as a boxed value, null for an empty cell
+     */
+    public Object get(int row, int column) {
+        Column target = columns[column];
+        return target.nulls[row] ? null : target.get(row);
+    }
+
+    /**
+     * The cell as text (the value's toString), null for an empty cell
+     */
+    public String text(int row, int column) {
+        Column target = columns[column];
+        return target.nulls[row] ? null : target.text(row);
+    }
+
+    private abstract static class Column {
+        final boolean[] nulls;
+
+        Column(int capacity) {
+            this.nulls = new boolean[capacity];
+        }
+
+        abstract void set(int row, Object value);
+
+        abstract Object get(int row);
+
+        abstract Object values();
+
+        void copyFrom(Column source, int count) {
+            System.arraycopy(source.nulls, 0, nulls, 0, count);
+            System.arraycopy(source.values(), 0, values(), 0, count);
+        }
+
+        abstract String text(int row);
+    }
+
+    private static final class LongColumn extends Column {
+        final long[] values;
+
+        LongColumn(int capacity) {
+            super(capacity);
+            this.values = new long[capacity];
+        }
+
+        @Override
+        void set(int row, Object value) {
+            nulls[row] = value == null;
+            if (value != null) {
+                values[row] = value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Object values() {
+            return values;
+        }
+
+        @Override
+        String text(int row) {
+            return Long.toString(values[row]);
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+        final boolean[] values;
+
+        BooleanColumn(int capacity) {
+            super(capacity);
+            this.values = new boolean[capacity];
+        }
+
+        @Override
+        void set(int row, Object value) {
+            nulls[row] = value == null;
+            if (value != null) {
+                values[row] = value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString());
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Object values() {
+            return values;
+        }
+
+        @Override
+        String text(int row) {
+            return values[row] ? "true" : "false";
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+        final Object[] values;
+        final Class<?> type;
+
+        ObjectColumn(int capacity, Class<?> type) {
+            super(capacity);
+            this.values = new Object[capacity];
+            this.type = type;
+        }
+
+        @Override
+        void set(int row, Object value) {
+            if (value != null && !type.isInstance(value)) {
+                // Legacy maps may carry any value in a string column
+                if (type != String.class) {
+                    throw new IllegalArgumentException("Expected " + type.getSimpleName() + " but got " + value.getClass().getSimpleName());
+                }
+                value = value.toString();
+            }
+            values[row] = value;
+            nulls[row] = value == null;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Object values() {
+            return values;
+        }
+
+        @Override
+        String text(int row) {
+            return values[row].toString();
+        }
+    }
+}
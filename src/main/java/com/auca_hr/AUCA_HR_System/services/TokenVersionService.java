@@ -0,0 +1,51 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.config.CacheConfig;
+import com.auca_hr.AUCA_HR_System.dtos.UserTokenState;
+import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final Cache tokenStates;
+
+    public TokenVersionService(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.tokenStates = cacheManager.getCache(CacheConfig.TOKEN_STATES);
+    }
+
+    /**
+     * Current token version and active flag for a user, or null if the user no longer exists.
+     * Cached per user id and evicted by UserService on writes that must revoke tokens.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TOKEN_STATES, key = "#userId")
+    public UserTokenState getTokenState(Long userId) {
+        return userRepository.findTokenStateById(userId).orElse(null);
+    }
+
+    /**
+     * Drop a user's token state now and again once the surrounding transaction commits,
+     * so a request authenticating in between cannot re-cache the old version.
+     */
+    public void evict(Long userId) {
+        tokenStates.evict(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenStates.evict(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.dtos.UnreadCountDTO;
+import com.auca_hr.AUCA_HR_System.repositories.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread notification count per recipient, kept in memory so polling the count costs no query.
+ * A counter is seeded from the notifications table on first read and then moved by writes that
+ * change unread state; changes are applied after commit and pushed on /queue/notifications/unread.
+ * A periodic reconciliation recounts the cached recipients and repairs drift.
+ */
+@Service
+@Slf4j
+public class UnreadCountService {
+
+    // Separate from /queue/notifications, so subscribers there only ever receive NotificationDTO payloads
+    private static final String UNREAD_COUNT_QUEUE = "/queue/notifications/unread";
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Cache<Long, AtomicLong> counters;
+
+    public UnreadCountService(NotificationRepository notificationRepository,
+                              SimpMessagingTemplate messagingTemplate,
+                              @Value("${app.notifications.unread.max-size:50000}") long maxSize,
+                              @Value("${app.notifications.unread.expire-after-access-minutes:60}") long expireAfterAccessMinutes) {
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .build();
+    }
+
+    public long getUnreadCount(Long recipientId) {
+        return counters.get(recipientId, id -> new AtomicLong(notificationRepository.countUnreadByRecipientId(id))).get();
+    }
+
+    /**
+     * Move the recipient's counter by delta once the current transaction commits
+     */
+    public void adjustAfterCommit(Long recipientId, String username, long delta) {
+        afterCommit(() -> {
+            AtomicLong counter = counters.getIfPresent(recipientId);
+            // An unseeded counter loads the committed state, which already includes this change
+            long value = counter != null
+                    ? counter.updateAndGet(current -> Math.max(0, current + delta))
+                    : getUnreadCount(recipientId);
+            push(username, value);
+        });
+    }
+
+    /**
+     * Set the recipient's counter to zero once the current transaction commits
+     */
+    public void resetAfterCommit(Long recipientId, String username) {
+        afterCommit(() -> {
+            counters.asMap().computeIfAbsent(recipientId, id -> new AtomicLong()).set(0);
+            push(username, 0);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.unread.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<Long> recipientIds = new ArrayList<>(counters.asMap().keySet());
+        int corrected = 0;
+
+        for (int from = 0; from < recipientIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = recipientIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, recipientIds.size()));
+
+            Map<Long, Long> actual = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadByRecipientIds(chunk)) {
+                actual.put((Long) row[0], (Long) row[1]);
+            }
+
+            for (Long recipientId : chunk) {
+                AtomicLong counter = counters.getIfPresent(recipientId);
+                long expected = actual.getOrDefault(recipientId, 0L);
+                if (counter != null && counter.getAndSet(expected) != expected) {
+                    corrected++;
+                }
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("Unread counters reconciled: {} of {} corrected", corrected, recipientIds.size());
+        }
+    }
+
+    private void push(String username, long unreadCount) {
+        if (username == null) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(username, UNREAD_COUNT_QUEUE, new UnreadCountDTO(unreadCount));
+        } catch (RuntimeException e) {
+            log.warn("Unread count push to {} failed: {}", username, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
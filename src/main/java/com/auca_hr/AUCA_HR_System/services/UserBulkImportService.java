@@ -0,0 +1,454 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.config.CacheConfig;
+import com.auca_hr.AUCA_HR_System.config.ExecutorConfig;
+import com.auca_hr.AUCA_HR_System.dtos.UserImportRowError;
+import com.auca_hr.AUCA_HR_System.dtos.UserImportStatus;
+import com.auca_hr.AUCA_HR_System.dtos.UserRegistrationDTO;
+import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.AcademicRank;
+import com.auca_hr.AUCA_HR_System.enums.ContractType;
+import com.auca_hr.AUCA_HR_System.enums.Gender;
+import com.auca_hr.AUCA_HR_System.enums.MaritalStatus;
+import com.auca_hr.AUCA_HR_System.enums.Religion;
+import com.auca_hr.AUCA_HR_System.enums.TprLevel;
+import com.auca_hr.AUCA_HR_System.enums.UserRole;
+import com.auca_hr.AUCA_HR_System.exceptions.ResourceNotFoundException;
+import com.auca_hr.AUCA_HR_System.exceptions.TooManyRequestsException;
+import com.auca_hr.AUCA_HR_System.exceptions.ValidationException;
+import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
+import com.auca_hr.AUCA_HR_System.repositories.UserRepositoryCustom.TakenIdentifiers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opencsv.CSVReaderHeaderAware;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Onboards many staff members from one upload. Rows are handled in batches: each batch is validated
+ * and its passwords hashed in parallel, checked for existing emails, national IDs and phone numbers
+ * in one query, and inserted in one transaction through Hibernate's JDBC batching. Welcome emails
+ * are queued only after the batch has committed. Job progress and per-row errors are kept in memory
+ * for the retention window and polled by the client.
+ */
+@Service
+@Slf4j
+public class UserBulkImportService {
+
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Executor importExecutor;
+    private final Executor workerExecutor;
+    private final Executor mailExecutor;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+    private final int maxRows;
+    private final Cache<String, ImportJob> jobs;
+
+    public UserBulkImportService(UserService userService,
+                                 UserRepository userRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 @Qualifier(ExecutorConfig.USER_IMPORT_EXECUTOR) Executor importExecutor,
+                                 @Qualifier(ExecutorConfig.USER_IMPORT_WORKER_EXECUTOR) Executor workerExecutor,
+                                 @Qualifier(ExecutorConfig.WELCOME_MAIL_EXECUTOR) Executor mailExecutor,
+                                 CacheManager cacheManager,
+                                 @Value("${app.users.import.batch-size:100}") int batchSize,
+                                 @Value("${app.users.import.max-rows:5000}") int maxRows,
+                                 @Value("${app.users.import.status-retention-minutes:60}") long retentionMinutes) {
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.importExecutor = importExecutor;
+        this.workerExecutor = workerExecutor;
+        this.mailExecutor = mailExecutor;
+        this.cacheManager = cacheManager;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRows = maxRows;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+    }
+
+    public UserImportStatus submitJson(List<UserRegistrationDTO> registrations, String username) {
+        if (registrations == null || registrations.isEmpty()) {
+            throw new ValidationException("The import contains no users");
+        }
+        checkRowCount(registrations.size());
+
+        List<ImportRow> rows = new ArrayList<>(registrations.size());
+        for (int i = 0; i < registrations.size(); i++) {
+            ImportRow row = new ImportRow(i + 1, registrations.get(i));
+            if (row.dto == null) {
+                row.error = "Empty row";
+            }
+            rows.add(row);
+        }
+        return submit(rows, username);
+    }
+
+    /**
+     * The upload is parsed on the request thread, since the multipart file is gone once the request ends.
+     * Columns are matched by header to the registration fields; education and work experience cannot be given in CSV.
+     */
+    public UserImportStatus submitCsv(MultipartFile file, String username) {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("The import file is empty");
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+             CSVReaderHeaderAware csv = new CSVReaderHeaderAware(reader)) {
+            while (true) {
+                Map<String, String> values;
+                try {
+                    values = csv.readMap();
+                } catch (CsvValidationException e) {
+                    // A row with the wrong number of fields fails on its own; reading goes on with the next one
+                    checkRowCount(rows.size() + 1);
+                    ImportRow row = new ImportRow(rows.size() + 1, null);
+                    row.error = "Malformed row: " + e.getMessage();
+                    rows.add(row);
+                    continue;
+                }
+                if (values == null) {
+                    break;
+                }
+                checkRowCount(rows.size() + 1);
+                rows.add(parseCsvRow(rows.size() + 1, values));
+            }
+        } catch (IOException e) {
+            throw new ValidationException("The import file could not be read: " + e.getMessage(), e);
+        }
+
+        if (rows.isEmpty()) {
+            throw new ValidationException("The import contains no users");
+        }
+        return submit(rows, username);
+    }
+
+    public UserImportStatus getStatus(String jobId, String username) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.requestedBy.equals(username)) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId);
+        }
+        return job.toStatus();
+    }
+
+    private UserImportStatus submit(List<ImportRow> rows, String username) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), username, rows.size());
+        jobs.put(job.id, job);
+        try {
+            importExecutor.execute(() -> run(job, rows));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            throw new TooManyRequestsException("The import queue is full, try again later");
+        }
+        return job.toStatus();
+    }
+
+    private void run(ImportJob job, List<ImportRow> rows) {
+        job.startedAt = LocalDateTime.now();
+        job.status = "RUNNING";
+        log.info("User import {} started: {} rows", job.id, rows.size());
+
+        try {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                importBatch(job, rows.subList(from, Math.min(from + batchSize, rows.size())));
+            }
+            job.status = "DONE";
+        } catch (RuntimeException e) {
+            log.error("User import {} failed: {}", job.id, e.getMessage(), e);
+            job.status = "FAILED";
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            // Rows of a failed job that were never reached are reported, so the counts always add up
+            for (ImportRow row : rows.subList(job.processedRows.get(), rows.size())) {
+                job.fail(row, "Not processed: the import stopped");
+            }
+        }
+        log.info("User import {} {}: {} created, {} failed", job.id, job.status.toLowerCase(Locale.ROOT),
+                job.createdCount.get(), job.failedCount.get());
+    }
+
+    private void importBatch(ImportJob job, List<ImportRow> batch) {
+        // Validation and BCrypt are CPU-bound and independent per row
+        CompletableFuture.allOf(batch.stream()
+                .filter(row -> row.error == null)
+                .map(row -> CompletableFuture.runAsync(() -> prepare(row), workerExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+
+        // Duplicates within the upload: the first occurrence wins
+        for (ImportRow row : batch) {
+            if (row.error == null) {
+                row.error = job.claim(row.dto);
+            }
+        }
+
+        List<ImportRow> candidates = batch.stream().filter(row -> row.error == null).toList();
+        TakenIdentifiers taken = userRepository.findTakenIdentifiers(
+                distinct(candidates, UserRegistrationDTO::getEmail),
+                distinct(candidates, UserRegistrationDTO::getNationalId),
+                distinct(candidates, UserRegistrationDTO::getPhoneNumber));
+
+        List<ImportRow> inserts = new ArrayList<>();
+        for (ImportRow row : candidates) {
+            UserRegistrationDTO dto = row.dto;
+            if (taken.emails().contains(dto.getEmail())) {
+                row.error = "Email already exists: " + dto.getEmail();
+            } else if (taken.nationalIds().contains(dto.getNationalId())) {
+                row.error = "National ID already exists: " + dto.getNationalId();
+            } else if (taken.phoneNumbers().contains(dto.getPhoneNumber())) {
+                row.error = "Phone number already exists: " + dto.getPhoneNumber();
+            } else {
+                inserts.add(row);
+            }
+        }
+
+        List<ImportRow> created = insert(inserts);
+
+        if (!created.isEmpty()) {
+            cacheManager.getCache(CacheConfig.USER_COUNTS).clear();
+        }
+        for (ImportRow row : created) {
+            queueWelcomeEmail(row);
+            job.createdCount.incrementAndGet();
+        }
+        for (ImportRow row : batch) {
+            if (row.error != null) {
+                job.fail(row, row.error);
+            }
+            // The raw password is only needed until the welcome email is queued
+            row.rawPassword = null;
+        }
+        job.processedRows.addAndGet(batch.size());
+    }
+
+    private void prepare(ImportRow row) {
+        try {
+            userService.validateRegistrationFields(row.dto);
+            row.rawPassword = row.dto.getPassword() != null ? row.dto.getPassword() : userService.generateTemporaryPassword();
+            row.encodedPassword = passwordEncoder.encode(row.rawPassword);
+        } catch (RuntimeException e) {
+            row.error = e.getMessage();
+        }
+    }
+
+    /**
+     * One transaction for the whole batch. If it hits a unique constraint (a user registered since the
+     * uniqueness check), the batch is retried row by row so only the conflicting rows fail.
+     */
+    private List<ImportRow> insert(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        try {
+            userRepository.saveAll(rows.stream().map(this::buildUser).toList());
+            return rows;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} users hit a constraint, retrying row by row: {}", rows.size(), e.getMessage());
+        }
+
+        // Entities from the rolled-back transaction carry ids and are rebuilt
+        List<ImportRow> created = new ArrayList<>();
+        for (ImportRow row : rows) {
+            try {
+                userRepository.save(buildUser(row));
+                created.add(row);
+            } catch (DataIntegrityViolationException e) {
+                row.error = "Email, national ID or phone number already exists";
+            }
+        }
+        return created;
+    }
+
+    private User buildUser(ImportRow row) {
+        return userService.buildNewUser(row.dto, row.encodedPassword);
+    }
+
+    private void queueWelcomeEmail(ImportRow row) {
+        String email = row.dto.getEmail();
+        String fullNames = row.dto.getFullNames();
+        String rawPassword = row.rawPassword;
+        try {
+            mailExecutor.execute(() -> {
+                try {
+                    userService.sendWelcomeEmail(email, fullNames, rawPassword).join();
+                } catch (RuntimeException e) {
+                    log.warn("Welcome email to {} failed: {}", email, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Welcome email queue is full, no email sent to {}", email);
+        }
+    }
+
+    private void checkRowCount(int rows) {
+        if (rows > maxRows) {
+            throw new ValidationException("An import is limited to " + maxRows + " users");
+        }
+    }
+
+    private static Set<String> distinct(List<ImportRow> rows, Function<UserRegistrationDTO, String> field) {
+        Set<String> values = new HashSet<>();
+        for (ImportRow row : rows) {
+            values.add(field.apply(row.dto));
+        }
+        return values;
+    }
+
+    private static ImportRow parseCsvRow(int rowNumber, Map<String, String> values) {
+        ImportRow row = new ImportRow(rowNumber, null);
+        try {
+            row.dto = UserRegistrationDTO.builder()
+                    .fullNames(text(values, "fullNames"))
+                    .phoneNumber(text(values, "phoneNumber"))
+                    .dateOfBirth(parse(values, "dateOfBirth", LocalDate::parse))
+                    .gender(parse(values, "gender", value -> Gender.valueOf(value.toUpperCase(Locale.ROOT))))
+                    .academicRank(parse(values, "academicRank", value -> AcademicRank.valueOf(value.toUpperCase(Locale.ROOT))))
+                    .email(text(values, "email"))
+                    .nationalId(text(values, "nationalId"))
+                    .nationality(text(values, "nationality"))
+                    .contractType(parse(values, "contractType", value -> ContractType.valueOf(value.toUpperCase(Locale.ROOT))))
+                    .maritalStatus(parse(values, "maritalStatus", value -> MaritalStatus.valueOf(value.toUpperCase(Locale.ROOT))))
+                    .religion(parse(values, "religion", value -> Religion.valueOf(value.toUpperCase(Locale.ROOT))))
+                    .password(text(values, "password"))
+                    .workingPosition(text(values, "workingPosition"))
+                    .salary(parse(values, "salary", BigDecimal::new))
+                    .totalAllowances(parse(values, "totalAllowances", BigDecimal::new))
+                    .bankAccount(text(values, "bankAccount"))
+                    .accountNumber(text(values, "accountNumber"))
+                    .tprLevel(parse(values, "tprLevel", value -> TprLevel.valueOf(value.toUpperCase(Locale.ROOT))))
+                    .rssbNumber(text(values, "rssbNumber"))
+                    .role(parse(values, "role", value -> UserRole.valueOf(value.toUpperCase(Locale.ROOT))))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+            row.email = text(values, "email");
+        }
+        return row;
+    }
+
+    private static String text(Map<String, String> values, String column) {
+        String value = values.get(column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static <T> T parse(Map<String, String> values, String column, Function<String, T> parser) {
+        String value = text(values, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value, e);
+        }
+    }
+
+    private static final class ImportRow {
+        final int number;
+        UserRegistrationDTO dto;
+        // Only set when the row could not be parsed, so the error can still name the user
+        String email;
+        volatile String error;
+        volatile String rawPassword;
+        volatile String encodedPassword;
+
+        ImportRow(int number, UserRegistrationDTO dto) {
+            this.number = number;
+            this.dto = dto;
+        }
+    }
+
+    private static final class ImportJob {
+        final String id;
+        final String requestedBy;
+        final int totalRows;
+        final AtomicInteger processedRows = new AtomicInteger();
+        final AtomicInteger createdCount = new AtomicInteger();
+        final AtomicInteger failedCount = new AtomicInteger();
+        final ConcurrentLinkedQueue<UserImportRowError> errors = new ConcurrentLinkedQueue<>();
+        // Touched by the job thread only
+        final Set<String> emails = new HashSet<>();
+        final Set<String> nationalIds = new HashSet<>();
+        final Set<String> phoneNumbers = new HashSet<>();
+        volatile String status = "QUEUED";
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime completedAt;
+
+        ImportJob(String id, String requestedBy, int totalRows) {
+            this.id = id;
+            this.requestedBy = requestedBy;
+            this.totalRows = totalRows;
+        }
+
+        /**
+         * @return why the row repeats an earlier row of the upload, or null after recording its identifiers
+         */
+        String claim(UserRegistrationDTO dto) {
+            if (emails.contains(dto.getEmail())) {
+                return "Duplicate email in this import: " + dto.getEmail();
+            }
+            if (nationalIds.contains(dto.getNationalId())) {
+                return "Duplicate national ID in this import: " + dto.getNationalId();
+            }
+            if (phoneNumbers.contains(dto.getPhoneNumber())) {
+                return "Duplicate phone number in this import: " + dto.getPhoneNumber();
+            }
+            emails.add(dto.getEmail());
+            nationalIds.add(dto.getNationalId());
+            phoneNumbers.add(dto.getPhoneNumber());
+            return null;
+        }
+
+        void fail(ImportRow row, String message) {
+            String email = row.dto != null ? row.dto.getEmail() : row.email;
+            errors.add(new UserImportRowError(row.number, email, message));
+            failedCount.incrementAndGet();
+        }
+
+        UserImportStatus toStatus() {
+            return UserImportStatus.builder()
+                    .jobId(id)
+                    .status(status)
+                    .totalRows(totalRows)
+                    .processedRows(processedRows.get())
+                    .createdCount(createdCount.get())
+                    .failedCount(failedCount.get())
+                    .errors(new ArrayList<>(errors))
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.config.CacheConfig;
+import com.auca_hr.AUCA_HR_System.dtos.UserSnapshot;
+import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves users by email or id through a size- and TTL-bounded cache of {@link UserSnapshot}s,
+ * so the acting user is loaded from the database at most once per TTL instead of on every call.
+ */
+@Service
+public class UserLookupService {
+
+    private final UserRepository userRepository;
+    private final Cache usersByEmail;
+    private final Cache usersById;
+
+    public UserLookupService(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.usersByEmail = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        this.usersById = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+    }
+
+    public Optional<UserSnapshot> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        UserSnapshot cached = usersByEmail.get(email, UserSnapshot.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return userRepository.findByEmail(email).map(this::cache);
+    }
+
+    public Optional<UserSnapshot> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        UserSnapshot cached = usersById.get(id, UserSnapshot.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return userRepository.findById(id).map(this::cache);
+    }
+
+    /**
+     * Resolve a user by email and return an entity reference for it.
+     * The reference is a lazy proxy: using it as an association or query parameter costs no SQL.
+     */
+    public Optional<User> findReferenceByEmail(String email) {
+        return findByEmail(email).map(snapshot -> userRepository.getReferenceById(snapshot.getId()));
+    }
+
+    /**
+     * Drop a user from both caches now and again once the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state.
+     */
+    public void evict(Long id, String... emails) {
+        doEvict(id, emails);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(id, emails);
+                }
+            });
+        }
+    }
+
+    /**
+     * Hit/miss statistics for both user caches
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("byEmail", describe(usersByEmail));
+        stats.put("byId", describe(usersById));
+        return stats;
+    }
+
+    private UserSnapshot cache(User user) {
+        UserSnapshot snapshot = UserSnapshot.of(user);
+        usersByEmail.put(snapshot.getEmail(), snapshot);
+        usersById.put(snapshot.getId(), snapshot);
+        return snapshot;
+    }
+
+    private void doEvict(Long id, String... emails) {
+        if (id != null) {
+            UserSnapshot cached = usersById.get(id, UserSnapshot.class);
+            if (cached != null) {
+                usersByEmail.evict(cached.getEmail());
+            }
+            usersById.evict(id);
+        }
+        for (String email : emails) {
+            if (email != null) {
+                usersByEmail.evict(email);
+            }
+        }
+    }
+
+    private Map<String, Object> describe(Cache cache) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (cache instanceof CaffeineCache caffeineCache) {
+            CacheStats stats = caffeineCache.getNativeCache().stats();
+            result.put("size", caffeineCache.getNativeCache().estimatedSize());
+            result.put("hits", stats.hitCount());
+            result.put("misses", stats.missCount());
+            result.put("hitRate", stats.hitRate());
+            result.put("evictions", stats.evictionCount());
+        }
+        return result;
+    }
+}
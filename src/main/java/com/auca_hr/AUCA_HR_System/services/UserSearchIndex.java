@@ -0,0 +1,63 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.repositories.UserRepositoryCustomImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes backing the user directory search. A pg_trgm GIN index over name, email and position
+ * serves substring and fuzzy matches; a text_pattern_ops index on the name serves short prefixes.
+ * When the extension cannot be installed (no privilege, managed database) search falls back to
+ * an unindexed substring match and says so at startup.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    private static final String TRIGRAM_INDEX = "idx_users_search_trgm";
+    private static final String PREFIX_INDEX = "idx_users_full_names_prefix";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private volatile boolean trigramAvailable;
+
+    public UserSearchIndex(JdbcTemplate jdbcTemplate,
+                           @Value("${app.users.search.trigram.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isTrigramAvailable() {
+        return trigramAvailable;
+    }
+
+    /**
+     * Runs at startup, after Hibernate has created users_auca
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + PREFIX_INDEX
+                    + " ON users_auca (lower(full_names) text_pattern_ops)");
+        } catch (DataAccessException e) {
+            log.warn("Could not create {}: {}", PREFIX_INDEX, e.getMessage());
+        }
+
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + TRIGRAM_INDEX
+                    + " ON users_auca USING gin (" + UserRepositoryCustomImpl.SEARCH_TEXT + " gin_trgm_ops)");
+            trigramAvailable = true;
+        } catch (DataAccessException e) {
+            log.warn("pg_trgm is not available, user search falls back to substring scans: {}", e.getMessage());
+        }
+    }
+}
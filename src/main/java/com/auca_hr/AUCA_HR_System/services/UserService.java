@@ -1,9 +1,11 @@
 package com.auca_hr.AUCA_HR_System.services;
 
+import com.auca_hr.AUCA_HR_System.config.CacheConfig;
 import com.auca_hr.AUCA_HR_System.dtos.*;
 import com.auca_hr.AUCA_HR_System.entities.Education;
 import com.auca_hr.AUCA_HR_System.entities.User;
 import com.auca_hr.AUCA_HR_System.entities.WorkExperience;
+import com.auca_hr.AUCA_HR_System.enums.ContractType;
 import com.auca_hr.AUCA_HR_System.enums.UserRole;
 import com.auca_hr.AUCA_HR_System.exceptions.DuplicateResourceException;
 import com.auca_hr.AUCA_HR_System.exceptions.FileValidationException;
@@ -11,14 +13,22 @@ import com.auca_hr.AUCA_HR_System.exceptions.InvalidFormatException;
 import com.auca_hr.AUCA_HR_System.exceptions.ResourceNotFoundException;
 import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
 import com.auca_hr.AUCA_HR_System.utils.FileStorageService;
+import com.auca_hr.AUCA_HR_System.utils.JwtUserPrincipal;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ValidationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -28,9 +38,15 @@ import org.springframework.web.multipart.MultipartFile;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -43,17 +59,26 @@ public class UserService {
     private Validator validator;
     private EmailService emailService;
     private final FileStorageService fileStorageService;
+    private final UserLookupService userLookupService;
+    private final UserSearchIndex userSearchIndex;
+    private final TokenVersionService tokenVersionService;
 
     @Autowired
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        Validator validator,
-                       EmailService emailService, FileStorageService fileStorageService) {
+                       EmailService emailService, FileStorageService fileStorageService,
+                       UserLookupService userLookupService,
+                       UserSearchIndex userSearchIndex,
+                       TokenVersionService tokenVersionService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.validator = validator;
         this.emailService = emailService;
         this.fileStorageService = fileStorageService;
+        this.userLookupService = userLookupService;
+        this.userSearchIndex = userSearchIndex;
+        this.tokenVersionService = tokenVersionService;
     }
 
     // Validation patterns
@@ -81,27 +106,64 @@ public class UserService {
     private static final int MIN_AGE = 18;
     private static final int MAX_AGE = 65;
     private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    // Ids per IN list when loading profiles
+    private static final int PROFILE_BATCH_SIZE = 500;
+
+    // Columns the directory may be sorted by; anything else falls back to id
+    private static final Set<String> SORTABLE_USER_FIELDS = Set.of(
+            "id", "fullNames", "email", "workingPosition", "createdAt"
+    );
 
-    public List<UserRegistrationDTO> searchUsers(String query, Long currentUserId) {
-        List<User> matchedUsers = userRepository.findByFullNamesContainingIgnoreCase(query);
-
-        return matchedUsers.stream()
-                .filter(user -> !user.getId().equals(currentUserId))
-                .map(this::buildUserDTO) // Use a lambda instead of method reference
-                .collect(Collectors.toList());
-
+    /**
+     * Typeahead over name, email and position, excluding the caller; at most limit hits, best first
+     */
+    @Transactional(readOnly = true)
+    public List<UserSearchResultDTO> searchUsers(String query, Long currentUserId, int limit) {
+        if (!StringUtils.hasText(query)) {
+            return List.of();
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<Long> ids = userRepository.searchIds(query, currentUserId, boundedLimit, userSearchIndex.isTrigramAvailable());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Keep the search's ranking order
+        Map<Long, UserSearchResultDTO> cards = userRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserSearchResultDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
 
     /**
      * Create a new user with comprehensive validation
      */
+    @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true)
     public User createUser(UserRegistrationDTO registrationDTO) {
         validateUserRegistration(registrationDTO);
-        User user = buildUserFromRegistrationDTO(registrationDTO);
         // Generate password if not provided
         String password = registrationDTO.getPassword() != null ? registrationDTO.getPassword() : generateTemporaryPassword();
-        user.setPassword(passwordEncoder.encode(password)); // IMPORTANT
+        User user = buildNewUser(registrationDTO, passwordEncoder.encode(password)); // IMPORTANT
+
+        User savedUser = userRepository.save(user);
+        sendWelcomeEmail(savedUser.getEmail(), savedUser.getFullNames(), password);
+
+
+        return savedUser;
+    }
+
+    /**
+     * A new, unsaved user with its education and work experience, from a registration already validated
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public User buildNewUser(UserRegistrationDTO registrationDTO, String encodedPassword) {
+        User user = buildUserFromRegistrationDTO(registrationDTO);
+        user.setPassword(encodedPassword);
 
         // IMPORTANT: Use the helper method, don't set education list directly
         if (registrationDTO.getEducation() != null) {
@@ -130,23 +192,27 @@ public class UserService {
                 user.addWorkExperience(education);
             }
         }
-
-
-
-        User savedUser = userRepository.save(user);
-        sendWelcomeEmail(savedUser.getEmail(), savedUser.getFullNames(), password);
-
-
-        return savedUser;
+        return user;
     }
 
     /**
      * Update existing user
      */
+    @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true)
     public User updateUser(Long userId, UserUpdateDTO updateDTO) {
         User existingUser = getUserById(userId);
         validateUserUpdate(updateDTO, existingUser);
+
+        UserRole previousRole = existingUser.getRole();
+        String previousEmail = existingUser.getEmail();
         User updatedUser = buildUpdatedUser(existingUser, updateDTO);
+
+        // Tokens carry the role and email as claims, so changing either revokes them
+        if (updatedUser.getRole() != previousRole || !updatedUser.getEmail().equals(previousEmail)) {
+            updatedUser.setTokenVersion(updatedUser.getTokenVersion() + 1);
+        }
+        userLookupService.evict(userId, previousEmail, updatedUser.getEmail());
+        tokenVersionService.evict(userId);
         return userRepository.save(updatedUser);
     }
 
@@ -158,6 +224,119 @@ public class UserService {
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
     }
+    /**
+     * A user with education and work experience loaded, in two queries
+     */
+    @Transactional(readOnly = true)
+    public UserFullProfileDTO getUserProfile(Long id) {
+        List<UserFullProfileDTO> profiles = getUserProfiles(List.of(id));
+        if (profiles.isEmpty()) {
+            throw new ResourceNotFoundException("User not found with ID: " + id);
+        }
+        return profiles.get(0);
+    }
+
+    /**
+     * The current user's own record with education and work experience loaded, in two queries
+     */
+    @Transactional(readOnly = true)
+    public UserOwnProfileDTO getCurrentUserProfile() {
+        List<Long> id = List.of(getCurrentUser().getId());
+        User user = userRepository.findWithEducationByIdIn(id).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id.get(0)));
+        userRepository.findWithWorkExperienceByIdIn(id);
+
+        return UserOwnProfileDTO.builder()
+                .profile(toFullProfile(user))
+                .nationalId(user.getNationalId())
+                .religion(user.getReligion())
+                .salary(user.getSalary())
+                .totalAllowances(user.getTotalAllowances())
+                .bankAccount(user.getBankAccount())
+                .accountNumber(user.getAccountNumber())
+                .tprLevel(user.getTprLevel())
+                .rssbNumber(user.getRssbNumber())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Users with education and work experience loaded, in the order of ids; unknown ids are skipped.
+     * Each chunk of ids costs one query per collection, so the query count does not grow with the profiles' contents.
+     */
+    @Transactional(readOnly = true)
+    public List<UserFullProfileDTO> getUserProfiles(List<Long> ids) {
+        Map<Long, User> loaded = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += PROFILE_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + PROFILE_BATCH_SIZE, ids.size()));
+            for (User user : userRepository.findWithEducationByIdIn(chunk)) {
+                loaded.put(user.getId(), user);
+            }
+            // Returns the same managed instances and fills in their second collection
+            userRepository.findWithWorkExperienceByIdIn(chunk);
+        }
+
+        List<UserFullProfileDTO> profiles = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = loaded.get(id);
+            if (user != null) {
+                profiles.add(toFullProfile(user));
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * One directory page of full profiles: the page of ids, then one query per collection
+     */
+    @Transactional(readOnly = true)
+    public List<UserFullProfileDTO> getProfilesPage(Long afterId, UserRole role, ContractType contractType,
+                                                    int page, int size, String sortBy, String direction) {
+        List<UserSummaryDTO> summaries = afterId != null
+                ? getUsersAfter(afterId, role, contractType, size)
+                : getUsersPage(role, contractType, page, size, sortBy, direction).getContent();
+        return getUserProfiles(summaries.stream().map(UserSummaryDTO::getId).toList());
+    }
+
+    private static UserFullProfileDTO toFullProfile(User user) {
+        return UserFullProfileDTO.builder()
+                .id(user.getId())
+                .fullNames(user.getFullNames())
+                .email(user.getEmail())
+                .phoneNumber(user.getPhoneNumber())
+                .dateOfBirth(user.getDateOfBirth())
+                .gender(user.getGender())
+                .maritalStatus(user.getMaritalStatus())
+                .nationality(user.getNationality())
+                .academicRank(user.getAcademicRank())
+                .contractType(user.getContractType())
+                .workingPosition(user.getWorkingPosition())
+                .photo(user.getPhoto())
+                .role(user.getRole())
+                .active(user.getActive())
+                .createdAt(user.getCreatedAt())
+                .education(user.getEducation().stream()
+                        .map(education -> EducationDTO.builder()
+                                .id(education.getId())
+                                .institution(education.getInstitution())
+                                .department(education.getDepartment())
+                                .program(education.getProgram())
+                                .period(education.getPeriod())
+                                .build())
+                        .toList())
+                .workExperience(user.getWorkExperience().stream()
+                        .map(experience -> WorkExperienceDTO.builder()
+                                .id(experience.getId())
+                                .company(experience.getCompany())
+                                .position(experience.getPosition())
+                                .year(experience.getYear())
+                                .experience(experience.getExperience())
+                                .build())
+                        .toList())
+                .build();
+    }
+
     /**
      * Get current authenticated user
      */
@@ -171,6 +350,11 @@ public class UserService {
         String email;
         Object principal = authentication.getPrincipal();
 
+        // Stateless principals already carry the id, so no email lookup is needed
+        if (principal instanceof JwtUserPrincipal jwtPrincipal) {
+            return getUserById(jwtPrincipal.getId());
+        }
+
         if (principal instanceof UserDetails) {
             email = ((UserDetails) principal).getUsername();
         } else if (principal instanceof String) {
@@ -183,17 +367,31 @@ public class UserService {
             throw new RuntimeException("Unable to determine user email from authentication");
         }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-
-        return user;
+        return getUserByEmail(email);
     }
     /**
      * Get user by email
      */
     @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        // email -> id comes from the lookup cache, so only the primary-key load hits the database
+        UserSnapshot snapshot = userLookupService.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+        return getUserById(snapshot.getId());
+    }
+
+    // Hit/miss statistics of the user lookup cache; in memory only, so no transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> getUserCacheStats() {
+        return userLookupService.getStats();
+    }
+
+    /**
+     * Profile view of a user by email, read as a projection
+     */
+    @Transactional(readOnly = true)
+    public UserProfileDTO getUserProfileByEmail(String email) {
+        return userRepository.findProfileByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
 
@@ -205,12 +403,38 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Get one page of users, optionally filtered by role and contract type
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserSummaryDTO> getUsersPage(UserRole role, ContractType contractType,
+                                    int page, int size, String sortBy, String direction) {
+        return userRepository.findSliceByFilters(role, contractType, buildUserPageRequest(page, size, sortBy, direction));
+    }
+
+    /**
+     * Get the page of users that follows the given id (keyset pagination)
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> getUsersAfter(Long afterId, UserRole role, ContractType contractType, int size) {
+        return userRepository.findPageAfterId(afterId, role, contractType, PageRequest.ofSize(clampPageSize(size)));
+    }
+
+    /**
+     * Count users matching the directory filters; cached until the next user write
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USER_COUNTS, key = "#role + ':' + #contractType")
+    public long countUsers(UserRole role, ContractType contractType) {
+        return userRepository.countByFilters(role, contractType);
+    }
+
     /**
      * Get users by role
      */
     @Transactional(readOnly = true)
-    public List<User> getUsersByRole(UserRole role) {
-        return userRepository.findByRole(role);
+    public List<UserSummaryDTO> getUsersByRole(UserRole role) {
+        return userRepository.findSummariesByRole(role);
     }
 
     /**
@@ -240,13 +464,36 @@ public class UserService {
     /**
      * Delete user by ID
      */
+    @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true)
     public void deleteUser(Long userId) {
         User user = getUserById(userId);
+        userLookupService.evict(userId, user.getEmail());
+        tokenVersionService.evict(userId);
         userRepository.delete(user);
     }
 
     // Private validation methods
     private void validateUserRegistration(UserRegistrationDTO dto) {
+        validateRegistrationFields(dto);
+
+        // Check uniqueness
+        if (emailExists(dto.getEmail())) {
+            throw new DuplicateResourceException("Email already exists: " + dto.getEmail());
+        }
+        if (nationalIdExists(dto.getNationalId())) {
+            throw new DuplicateResourceException("National ID already exists: " + dto.getNationalId());
+        }
+        if (phoneNumberExists(dto.getPhoneNumber())) {
+            throw new DuplicateResourceException("Phone number already exists: " + dto.getPhoneNumber());
+        }
+    }
+
+    /**
+     * Every registration check that needs no database access; safe to run on several threads.
+     * Called from import workers, so it must not open a transaction and take a connection per row.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void validateRegistrationFields(UserRegistrationDTO dto) {
         // Bean validation
         Set<ConstraintViolation<UserRegistrationDTO>> violations = validator.validate(dto);
         if (!violations.isEmpty()) {
@@ -267,17 +514,6 @@ public class UserService {
         validateAccountNumber(dto.getAccountNumber());
         validateRssbNumber(dto.getRssbNumber());
         validatePhoto(dto.getPhoto());
-
-        // Check uniqueness
-        if (emailExists(dto.getEmail())) {
-            throw new DuplicateResourceException("Email already exists: " + dto.getEmail());
-        }
-        if (nationalIdExists(dto.getNationalId())) {
-            throw new DuplicateResourceException("National ID already exists: " + dto.getNationalId());
-        }
-        if (phoneNumberExists(dto.getPhoneNumber())) {
-            throw new DuplicateResourceException("Phone number already exists: " + dto.getPhoneNumber());
-        }
     }
 
     private void validateUserUpdate(UserUpdateDTO dto, User existingUser) {
@@ -553,11 +789,29 @@ public class UserService {
         return existingUser;
     }
 
-    private String generateTemporaryPassword() {
+    private Pageable buildUserPageRequest(int page, int size, String sortBy, String direction) {
+        String property = sortBy != null && SORTABLE_USER_FIELDS.contains(sortBy) ? sortBy : "id";
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        // Always tie-break on id so rows never shift between pages
+        Sort sort = Sort.by(sortDirection, property);
+        if (!"id".equals(property)) {
+            sort = sort.and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+        return PageRequest.of(Math.max(page, 0), clampPageSize(size), sort);
+    }
+
+    private int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String generateTemporaryPassword() {
         return UUID.randomUUID().toString().substring(0, 12);
     }
 
-    private void sendWelcomeEmail(String email, String firstName, String rawPassword) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Void> sendWelcomeEmail(String email, String firstName, String rawPassword) {
         String htmlTemplate = String.format(
                 "<!DOCTYPE html>" +
                         "<html lang=\"en\">" +
@@ -606,7 +860,7 @@ public class UserService {
                 .body(htmlContent)
                 .build();
 
-        emailService.sendEmail(emailDto);
+        return emailService.sendEmail(emailDto);
     }
 
 }
@@ -1,12 +1,16 @@
 package com.auca_hr.AUCA_HR_System.utils;
 
+import com.auca_hr.AUCA_HR_System.dtos.UserTokenState;
+import com.auca_hr.AUCA_HR_System.services.TokenVersionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -20,11 +24,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    // When enabled, the principal is built from the token claims instead of loading the User entity
+    @Value("${app.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Autowired
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                         TokenVersionService tokenVersionService) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @Override
@@ -33,26 +44,59 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             String jwt = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(jwt);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = userDetailsService.loadUserByUsername(username);
+            // Signature and expiry are checked exactly once per request
+            VerifiedToken token;
+            try {
+                token = jwtUtil.verify(jwt);
+            } catch (RuntimeException e) {
+                token = null;
+            }
+
+            UserDetails userDetails = null;
+            if (token != null && !token.isExpired() && token.getSubject() != null) {
+                userDetails = statelessPrincipal
+                        ? resolveStatelessPrincipal(token)
+                        : userDetailsService.loadUserByUsername(token.getSubject());
+            }
 
-                if (jwtUtil.isTokenValid(jwt)) {
-                    var authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+            if (userDetails != null) {
+                var authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveStatelessPrincipal(VerifiedToken token) {
+        JwtUserPrincipal principal;
+        try {
+            principal = jwtUtil.toPrincipal(token);
+        } catch (IllegalArgumentException e) {
+            // Unknown role claim
+            return null;
+        }
+
+        if (principal == null || !principal.isEnabled()) {
+            return null;
+        }
+
+        // Revocation check: the token must carry the user's current version and the user must still be active
+        UserTokenState state = tokenVersionService.getTokenState(principal.getId());
+        if (state == null || !state.isActive() || state.currentVersion() != principal.getTokenVersion()) {
+            return null;
+        }
+
+        return principal;
+    }
 }
@@ -1,18 +1,28 @@
 package com.auca_hr.AUCA_HR_System.utils;
 
 import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.UserRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -27,8 +37,34 @@ public class JwtUtil {
     @Value("${app.jwt.refresh-expiration:604800}") // 7 days default
     private int refreshExpirationInSeconds;
 
+    // Tokens already verified, keyed by SHA-256 of the token; 0 disables the cache
+    @Value("${app.jwt.verification-cache.max-size:10000}")
+    private long verificationCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Build the signing key, parser and verification cache once; all of them are thread-safe.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        if (verificationCacheMaxSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verificationCacheMaxSize)
+                    .expireAfter(new TokenExpiry())
+                    .build();
+        }
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     /**
@@ -41,6 +77,7 @@ public class JwtUtil {
         claims.put("role", user.getRole().name());
         claims.put("fullNames", user.getFullNames());
         claims.put("enabled", user.isEnabled());
+        claims.put("ver", user.getTokenVersion());
 
         return createToken(claims, user.getEmail(), jwtExpirationInSeconds);
     }
@@ -73,14 +110,14 @@ public class JwtUtil {
      * Extract username from token
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
     /**
      * Extract user ID from token
      */
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        return verify(token).getUserId();
     }
 
     /**
@@ -118,11 +155,63 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("enabled", Boolean.class));
     }
 
+    /**
+     * Verify the token's signature and expiry once and return its parsed claims.
+     * Repeat calls for the same token are served from the bounded verification cache.
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedTokens == null) {
+            return parseAndVerify(token);
+        }
+
+        String key = hashToken(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (cached.isExpired()) {
+                verifiedTokens.invalidate(key);
+                throw new RuntimeException("JWT token is expired");
+            }
+            return cached;
+        }
+
+        VerifiedToken verified = parseAndVerify(token);
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
+    /**
+     * Build a lightweight principal from a verified token.
+     * Returns null for refresh tokens or tokens missing the user claims.
+     */
+    public JwtUserPrincipal toPrincipal(VerifiedToken token) {
+        if (token.isRefreshToken()
+                || token.getUserId() == null
+                || token.getRole() == null
+                || token.getSubject() == null) {
+            return null;
+        }
+
+        return new JwtUserPrincipal(
+                token.getUserId(),
+                token.getSubject(),
+                UserRole.valueOf(token.getRole()),
+                token.getEnabled() == null || token.getEnabled(),
+                token.getTokenVersion()
+        );
+    }
+
+    /**
+     * Build a lightweight principal from a single verification of the token
+     */
+    public JwtUserPrincipal extractPrincipal(String token) {
+        return toPrincipal(verify(token));
+    }
+
     /**
      * Extract expiration date from token
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).getExpiration();
     }
 
     /**
@@ -137,12 +226,12 @@ public class JwtUtil {
      * Extract all claims from token
      */
     private Claims extractAllClaims(String token) {
+        return verify(token).getClaims();
+    }
+
+    private VerifiedToken parseAndVerify(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return new VerifiedToken(jwtParser.parseSignedClaims(token).getPayload());
         } catch (SignatureException e) {
             throw new RuntimeException("Invalid JWT signature", e);
         } catch (MalformedJwtException e) {
@@ -156,11 +245,42 @@ public class JwtUtil {
         }
     }
 
+    private String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Evicts each cached token at its own exp claim
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.getExpirationMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
     /**
      * Check if token is expired
      */
     public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verify(token).isExpired();
     }
 
     /**
@@ -189,8 +309,7 @@ public class JwtUtil {
      */
     public Boolean isTokenValid(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !verify(token).isExpired();
         } catch (RuntimeException e) {
             return false;
         }
@@ -201,8 +320,7 @@ public class JwtUtil {
      */
     public Boolean isRefreshToken(String token) {
         try {
-            String tokenType = extractClaim(token, claims -> claims.get("tokenType", String.class));
-            return "refresh".equals(tokenType);
+            return verify(token).isRefreshToken();
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,63 @@
+package com.auca_hr.AUCA_HR_System.utils;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUIDv7 (RFC 9562) ids: 48-bit Unix millisecond timestamp, then a 12-bit counter, then 62 random bits.
+ * The counter restarts at a random value each millisecond and increments within it, so ids from this
+ * JVM are strictly increasing; their lowercase string form sorts the same way.
+ */
+public class TimeOrderedIdGenerator implements IdentifierGenerator {
+
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastMillis;
+    private static int sequence;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static String next() {
+        long millis;
+        int seq;
+        synchronized (TimeOrderedIdGenerator.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // Start in the lower half so a busy millisecond has room to count up
+                sequence = ThreadLocalRandom.current().nextInt(MAX_SEQUENCE / 2);
+            } else if (++sequence > MAX_SEQUENCE) {
+                // Counter exhausted (or the clock went backwards): borrow the next millisecond
+                lastMillis++;
+                sequence = 0;
+            }
+            millis = lastMillis;
+            seq = sequence;
+        }
+        return format(millis, seq);
+    }
+
+    /**
+     * An id for a row created at the given time, e.g. when migrating existing rows.
+     * Not ordered against other ids from the same millisecond.
+     */
+    public static String forTimestamp(long epochMillis) {
+        return format(epochMillis, ThreadLocalRandom.current().nextInt(MAX_SEQUENCE + 1));
+    }
+
+    public static boolean isTimeOrdered(String id) {
+        return id != null && id.length() == 36 && id.charAt(14) == '7';
+    }
+
+    private static String format(long millis, int seq) {
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+}
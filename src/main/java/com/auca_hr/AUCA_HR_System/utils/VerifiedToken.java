@@ -0,0 +1,81 @@
+package com.auca_hr.AUCA_HR_System.utils;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Immutable result of verifying a JWT once: signature checked, claims parsed.
+ * Safe to share between threads and to keep in the verification cache.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final Long userId;
+    private final String role;
+    private final Boolean enabled;
+    private final int tokenVersion;
+    private final String tokenType;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Claims claims;
+
+    VerifiedToken(Claims claims) {
+        Number userIdClaim = claims.get("userId", Number.class);
+        Number versionClaim = claims.get("ver", Number.class);
+
+        this.subject = claims.getSubject();
+        this.userId = userIdClaim != null ? userIdClaim.longValue() : null;
+        this.role = claims.get("role", String.class);
+        this.enabled = claims.get("enabled", Boolean.class);
+        this.tokenVersion = versionClaim != null ? versionClaim.intValue() : 0;
+        this.tokenType = claims.get("tokenType", String.class);
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+        this.claims = claims; // jjwt 0.12 claims are immutable
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(tokenType);
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt != null ? new Date(issuedAt.getTime()) : null;
+    }
+
+    public Date getExpiration() {
+        return expiration != null ? new Date(expiration.getTime()) : null;
+    }
+
+    public long getExpirationMillis() {
+        return expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return getExpirationMillis() <= System.currentTimeMillis();
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+}
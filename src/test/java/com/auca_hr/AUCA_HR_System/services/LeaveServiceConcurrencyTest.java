@@ -0,0 +1,202 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.dtos.LeaveRequestDTO;
+import com.auca_hr.AUCA_HR_System.entities.LeaveRequest;
+import com.auca_hr.AUCA_HR_System.entities.User;
+import com.auca_hr.AUCA_HR_System.enums.LeaveStatus;
+import com.auca_hr.AUCA_HR_System.enums.LeaveType;
+import com.auca_hr.AUCA_HR_System.repositories.LeaveRequestRepository;
+import com.auca_hr.AUCA_HR_System.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives concurrent submitLeaveRequest calls for one lecturer through real transactions.
+ * The fake repository only makes a saved request visible once its transaction commits, as the
+ * database would, so the checks only hold if the lecturer lock is kept until after commit.
+ */
+class LeaveServiceConcurrencyTest {
+
+	private static final int MAX_ANNUAL_LEAVE_DAYS = 30;
+	private static final int APPROVED_DAYS = 10;
+	private static final int DAYS_PER_REQUEST = 2;
+	private static final int THREADS = 32;
+	private static final Long LECTURER_ID = 42L;
+	private static final String LECTURER_EMAIL = "lecturer@auca.ac.rw";
+
+	private final List<LeaveRequest> committed = new CopyOnWriteArrayList<>();
+	private final AtomicLong ids = new AtomicLong();
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+	private final int year = LocalDate.now().getYear() + 1;
+
+	private LeaveService leaveService;
+
+	@BeforeEach
+	void setUp() {
+		User lecturer = new User();
+		lecturer.setId(LECTURER_ID);
+		lecturer.setEmail(LECTURER_EMAIL);
+
+		UserLookupService userLookupService = mock(UserLookupService.class);
+		when(userLookupService.findReferenceByEmail(LECTURER_EMAIL)).thenReturn(Optional.of(lecturer));
+
+		LeaveBalanceService leaveBalanceService = mock(LeaveBalanceService.class);
+		when(leaveBalanceService.getUsedDays(eq(LECTURER_ID), anyInt()))
+				.thenAnswer(invocation -> (int) invocation.getArgument(1) == year ? APPROVED_DAYS : 0);
+
+		LeaveRequestRepository leaveRequestRepository = mock(LeaveRequestRepository.class);
+		when(leaveRequestRepository.findOverlappingActiveLeaves(any(), any(), any())).thenAnswer(invocation -> {
+			LocalDate start = invocation.getArgument(1);
+			LocalDate end = invocation.getArgument(2);
+			return committed.stream()
+					.filter(request -> !request.getStartDate().isAfter(end) && !request.getEndDate().isBefore(start))
+					.toList();
+		});
+		when(leaveRequestRepository.findByLecturerAndStatusOrderByCreatedAtDesc(any(), eq(LeaveStatus.PENDING)))
+				.thenAnswer(invocation -> committed.stream()
+						.filter(request -> request.getStatus() == LeaveStatus.PENDING)
+						.toList());
+		when(leaveRequestRepository.save(any(LeaveRequest.class))).thenAnswer(invocation -> {
+			LeaveRequest request = invocation.getArgument(0);
+			request.setId(ids.incrementAndGet());
+			// Widen the window between the checks and the commit
+			Thread.sleep(2);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					committed.add(request);
+				}
+			});
+			return request;
+		});
+
+		leaveService = new LeaveService(leaveRequestRepository, mock(UserRepository.class), userLookupService,
+				mock(NotificationService.class), leaveBalanceService, new LeaveSubmissionLock(jdbcTemplate, 64, true));
+	}
+
+	@Test
+	void concurrentSubmissionsForOneLecturerStayWithinTheBalance() throws Exception {
+		List<LocalDate> startDates = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			// Disjoint ranges, so only the annual limit can reject a request
+			startDates.add(LocalDate.of(year, 1, 1).plusDays(i * (DAYS_PER_REQUEST + 1L)));
+		}
+
+		int accepted = submitConcurrently(startDates);
+
+		int reservedDays = committed.stream().mapToInt(request -> (int) request.getLeaveDuration()).sum();
+		assertTrue(APPROVED_DAYS + reservedDays <= MAX_ANNUAL_LEAVE_DAYS,
+				"approved + pending days " + (APPROVED_DAYS + reservedDays) + " exceed the balance");
+		assertEquals((MAX_ANNUAL_LEAVE_DAYS - APPROVED_DAYS) / DAYS_PER_REQUEST, accepted);
+		assertEquals(accepted, committed.size());
+		verifyAdvisoryLockTaken();
+	}
+
+	@Test
+	void concurrentIdenticalSubmissionsAreAcceptedOnce() throws Exception {
+		List<LocalDate> startDates = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			startDates.add(LocalDate.of(year, 3, 1));
+		}
+
+		int accepted = submitConcurrently(startDates);
+
+		assertEquals(1, accepted);
+		assertEquals(1, committed.size());
+		verifyAdvisoryLockTaken();
+	}
+
+	private int submitConcurrently(List<LocalDate> startDates) throws Exception {
+		AtomicInteger accepted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(startDates.size());
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (LocalDate startDate : startDates) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					LeaveRequestDTO request = new LeaveRequestDTO();
+					request.setLeaveType(LeaveType.values()[0]);
+					request.setStartDate(startDate);
+					request.setEndDate(startDate.plusDays(DAYS_PER_REQUEST - 1));
+					try {
+						transactionTemplate.executeWithoutResult(status -> leaveService.submitLeaveRequest(request, LECTURER_EMAIL));
+						accepted.incrementAndGet();
+					} catch (RuntimeException e) {
+						// Rejected by the overlap or annual-limit check
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return accepted.get();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void verifyAdvisoryLockTaken() {
+		verify(jdbcTemplate, times(THREADS)).query(eq("SELECT pg_advisory_xact_lock(?, ?)"),
+				any(ResultSetExtractor.class), anyInt(), eq(Long.hashCode(LECTURER_ID)));
+	}
+
+	/**
+	 * Transactions without a resource: enough for synchronizations to run, in the same order as with a database
+	 */
+	private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaveSubmissionLockTest {
+
+	private static final int MAX_DAYS = 30;
+	private static final int DAYS_PER_REQUEST = 4;
+
+	private final LeaveSubmissionLock lock = new LeaveSubmissionLock(null, 64, false);
+
+	@Test
+	void concurrentSubmissionsForOneLecturerNeverOverbook() throws Exception {
+		int threads = 64;
+		AtomicInteger reservedDays = new AtomicInteger();
+		AtomicInteger accepted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					return lock.withLecturerLock(42L, () -> {
+						// Same shape as submitLeaveRequest: read, check, then write
+						int used = reservedDays.get();
+						if (used + DAYS_PER_REQUEST > MAX_DAYS) {
+							return false;
+						}
+						Thread.yield();
+						reservedDays.set(used + DAYS_PER_REQUEST);
+						accepted.incrementAndGet();
+						return true;
+					});
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertTrue(reservedDays.get() <= MAX_DAYS);
+		assertEquals(MAX_DAYS / DAYS_PER_REQUEST, accepted.get());
+		assertEquals(accepted.get() * DAYS_PER_REQUEST, reservedDays.get());
+	}
+
+	@Test
+	void differentLecturersDoNotBlockEachOther() throws Exception {
+		CountDownLatch firstInside = new CountDownLatch(1);
+		CountDownLatch secondDone = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<Boolean> first = pool.submit(() -> lock.withLecturerLock(1L, () -> {
+				firstInside.countDown();
+				try {
+					// Only returns true if lecturer 2 got through while lecturer 1 still held its lock
+					return secondDone.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}));
+
+			assertTrue(firstInside.await(10, TimeUnit.SECONDS));
+			pool.submit(() -> lock.withLecturerLock(2L, () -> {
+				secondDone.countDown();
+				return null;
+			})).get(10, TimeUnit.SECONDS);
+
+			assertTrue(first.get(10, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
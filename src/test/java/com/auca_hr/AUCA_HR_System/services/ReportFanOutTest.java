@@ -0,0 +1,159 @@
+package com.auca_hr.AUCA_HR_System.services;
+
+import com.auca_hr.AUCA_HR_System.dtos.ReportRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Drives ReportFanOut with stub generators, since CSV is the only real format today.
+ * A queue of one batch per sink keeps the reader and the writers in lockstep, so the reused
+ * provider batch and the shared batch pool are both exercised.
+ */
+class ReportFanOutTest {
+
+	private static final ReportSchema SCHEMA = ReportSchema.builder()
+			.column("Id", ReportSchema.ColumnType.LONG)
+			.build();
+	private static final int ROWS = 50;
+	private static final int BATCH_SIZE = 4;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final ReportFanOut fanOut = new ReportFanOut(executor, 1);
+	private final ReportRequest request = new ReportRequest();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void everyGeneratorWritesEveryRow() throws Exception {
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+		List<Exception> failures = fanOut.write(new StubDataProvider(-1), request, "Stub",
+				List.of(new StubGenerator(false), new StubGenerator(false)), List.of(first, second));
+
+		assertNull(failures.get(0));
+		assertNull(failures.get(1));
+		assertEquals(expectedReport(), first.toString(StandardCharsets.UTF_8));
+		assertEquals(expectedReport(), second.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void aFailingWriterDoesNotStopTheOthers() throws Exception {
+		ByteArrayOutputStream healthy = new ByteArrayOutputStream();
+		ByteArrayOutputStream broken = new ByteArrayOutputStream();
+
+		List<Exception> failures = fanOut.write(new StubDataProvider(-1), request, "Stub",
+				List.of(new StubGenerator(false), new StubGenerator(true)), List.of(healthy, broken));
+
+		assertNull(failures.get(0));
+		assertInstanceOf(IOException.class, failures.get(1));
+		assertEquals(expectedReport(), healthy.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void aFailingReadFailsTheWholeReport() {
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+
+		IOException e = assertThrows(IOException.class, () -> fanOut.write(new StubDataProvider(3), request, "Stub",
+				List.of(new StubGenerator(false), new StubGenerator(false)), List.of(first, second)));
+
+		assertEquals("Source read failed", e.getMessage());
+		// Neither report was completed
+		assertEquals(-1, first.toString(StandardCharsets.UTF_8).indexOf("END"));
+		assertEquals(-1, second.toString(StandardCharsets.UTF_8).indexOf("END"));
+	}
+
+	private static String expectedReport() {
+		StringBuilder report = new StringBuilder("Id\n");
+		for (int i = 0; i < ROWS; i++) {
+			report.append(i).append('\n');
+		}
+		return report.append("END\n").toString();
+	}
+
+	/**
+	 * ROWS sequential ids in one reused batch; fails after failAfterBatches batches unless that is negative
+	 */
+	private record StubDataProvider(int failAfterBatches) implements ReportDataProvider {
+
+		@Override
+		public ReportSchema getSchema(String reportType) {
+			return SCHEMA;
+		}
+
+		@Override
+		public void streamBatches(ReportRequest request, BatchSink sink) throws IOException {
+			RowBatch batch = new RowBatch(SCHEMA, BATCH_SIZE);
+			int batches = 0;
+			for (int i = 0; i < ROWS; i++) {
+				batch.setLong(batch.addRow(), 0, i);
+				if (batch.isFull() || i == ROWS - 1) {
+					if (batches++ == failAfterBatches) {
+						throw new IOException("Source read failed");
+					}
+					sink.accept(batch);
+					batch.clear();
+				}
+			}
+		}
+
+		@Override
+		public Set<String> getReportTypes() {
+			return Set.of("STUB");
+		}
+	}
+
+	/**
+	 * One value per line and an END marker on finish; the failing variant throws on its first batch
+	 */
+	private record StubGenerator(boolean failing) implements ReportGenerator {
+
+		@Override
+		public ReportWriter open(String[] headers, String title, OutputStream out) throws IOException {
+			out.write((String.join(",", headers) + "\n").getBytes(StandardCharsets.UTF_8));
+			return new ReportWriter() {
+				@Override
+				public void writeRow(Map<String, Object> row) throws IOException {
+					if (failing) {
+						throw new IOException("Writer failed");
+					}
+					out.write((row.get("Id") + "\n").getBytes(StandardCharsets.UTF_8));
+				}
+
+				@Override
+				public void finish() throws IOException {
+					out.write("END\n".getBytes(StandardCharsets.UTF_8));
+				}
+			};
+		}
+
+		@Override
+		public String getContentType() {
+			return "text/plain";
+		}
+
+		@Override
+		public String getFileExtension() {
+			return failing ? "broken" : "txt";
+		}
+	}
+}